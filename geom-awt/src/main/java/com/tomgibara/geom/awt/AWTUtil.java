@@ -281,6 +281,19 @@ public class AWTUtil {
                     }
                     return null;
                 }
+                @Override
+                public Void addPoints(double[] coords, int offset, int length) {
+                    int i = offset;
+                    int limit = offset + length;
+                    if (first && length > 0) {
+                        first = false;
+                        i += 2;
+                    }
+                    for (; i < limit; i += 2) {
+                        p.lineTo(coords[i], coords[i + 1]);
+                    }
+                    return null;
+                }
             });
         }
         if (path.isClosed()) p.closePath();
@@ -0,0 +1,41 @@
+package com.tomgibara.geom.bench;
+
+import java.awt.geom.Path2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.awt.AWTUtil;
+import com.tomgibara.geom.path.Path;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AWTBenchmark {
+
+    private Path polygon;
+    private Path curves;
+
+    @Setup
+    public void setup() {
+        polygon = Fixtures.star(1024, 100.0);
+        curves = Fixtures.wiggle(32, 200.0, 7L);
+    }
+
+    @Benchmark
+    public Path2D.Double polygonToPath2D() {
+        return AWTUtil.toPath2D(polygon);
+    }
+
+    @Benchmark
+    public Path2D.Double curvesToPath2D() {
+        return AWTUtil.toPath2D(curves);
+    }
+
+}
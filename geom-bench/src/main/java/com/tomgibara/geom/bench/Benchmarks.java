@@ -0,0 +1,29 @@
+package com.tomgibara.geom.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// runs the benchmarks and records the results as JSON for comparison between releases
+// usage: java -jar benchmarks.jar [include-regex] [result-file]
+public class Benchmarks {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String... args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : Benchmarks.class.getPackage().getName() + ".*";
+        String resultFile = args.length > 1 ? args[1] : DEFAULT_RESULT_FILE;
+        Options options = new OptionsBuilder()
+                .include(include)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+
+}
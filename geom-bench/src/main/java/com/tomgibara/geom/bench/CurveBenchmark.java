@@ -0,0 +1,115 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.Ellipse;
+import com.tomgibara.geom.helper.ClippedLinearizer;
+import com.tomgibara.geom.helper.LinearizationCache;
+import com.tomgibara.geom.path.Parameterization;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurveBenchmark {
+
+    private BezierCurve curve;
+    private Parameterization.ByLength byLength;
+    private double length;
+    private double t = 0.0;
+    private LinearizationCache cache;
+    private Tolerances zoomedOut;
+    private Path scene;
+    private ClippedLinearizer window;
+
+    @Setup
+    public void setup() {
+        curve = Fixtures.cubic();
+        byLength = curve.getPath().byLength();
+        length = curve.getPath().getLength();
+        cache = new LinearizationCache(1 << 20);
+        zoomedOut = Tolerances.defaults().forView(Transform.scale(1.0 / 16.0), 0.25);
+        scene = Fixtures.wiggle(1000, 10000.0, 0L);
+        window = new ClippedLinearizer(Rect.atPoints(4000.0, 4000.0, 4500.0, 4500.0));
+    }
+
+    // a fresh curve each time, so that no cached state is measured
+    @Benchmark
+    public double linearize() {
+        return Fixtures.cubic().getPath().linearize(new Fixtures.Sink()).sum;
+    }
+
+    // as linearize, but only as finely as a view at a sixteenth of the scale requires
+    @Benchmark
+    public double linearizeZoomedOut() {
+        Context.enter(zoomedOut, null);
+        try {
+            return Fixtures.cubic().getPath().linearize(new Fixtures.Sink()).sum;
+        } finally {
+            Context.exit();
+        }
+    }
+
+    // every curve of a large scene
+    @Benchmark
+    public double linearizeScene() {
+        return scene.linearize(new Fixtures.Sink()).sum;
+    }
+
+    // only the curves of the scene visible through a small window are linearized in detail
+    @Benchmark
+    public double linearizeWindow() {
+        return window.linearize(scene, new Fixtures.Sink()).sum;
+    }
+
+    // replays the linearization retained by the cache
+    @Benchmark
+    public double linearizeCached() {
+        return cache.linearize(curve.getPath(), new Fixtures.Sink()).sum;
+    }
+
+    @Benchmark
+    public double lengthAt() {
+        t = t >= 0.95 ? 0.05 : t + 0.1;
+        return curve.lengthAt(t);
+    }
+
+    @Benchmark
+    public double pointAtLength() {
+        t = t >= 0.95 ? 0.05 : t + 0.1;
+        return byLength.pointAt(t * length).x;
+    }
+
+    @Benchmark
+    public double parameterNearest() {
+        t = t >= 0.95 ? 0.05 : t + 0.1;
+        return curve.parameterNearest(new Point(t * 80.0, 20.0));
+    }
+
+    // a fresh curve each time, so that the bounds are not cached
+    @Benchmark
+    public Rect bounds() {
+        return Fixtures.cubic().getBounds();
+    }
+
+    @Benchmark
+    public Rect arcBounds() {
+        t = t >= 0.95 ? 0.05 : t + 0.1;
+        return Ellipse.fromRadii(40.0, 25.0).arc(t, t + 1.0).getBounds();
+    }
+
+}
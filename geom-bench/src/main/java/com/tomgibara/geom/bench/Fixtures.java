@@ -0,0 +1,98 @@
+package com.tomgibara.geom.bench;
+
+import java.util.Random;
+
+import com.tomgibara.geom.contour.PathContour;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+import com.tomgibara.geom.path.SequencePath;
+import com.tomgibara.geom.shape.Shape;
+import com.tomgibara.geom.shape.WindingRule;
+
+// deterministic inputs shared by the benchmarks
+final class Fixtures {
+
+    static BezierCurve cubic() {
+        return BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+    }
+
+    // a closed star with the given number of vertices, centred at the origin
+    static PolygonalPath star(int vertices, double radius) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2.0 * Math.PI * i / vertices;
+            double r = (i & 1) == 0 ? radius : radius * 0.5;
+            builder.addPoint(r * Math.cos(angle), r * Math.sin(angle));
+        }
+        return builder.closeAndBuild();
+    }
+
+    // an open chain of cubic curves wandering across a square of the given size
+    static Path wiggle(int curves, double size, long seed) {
+        Random r = new Random(seed);
+        SequencePath.Builder builder = SequencePath.builder();
+        Point start = new Point(r.nextDouble() * size, r.nextDouble() * size);
+        for (int i = 0; i < curves; i++) {
+            Point c1 = new Point(r.nextDouble() * size, r.nextDouble() * size);
+            Point c2 = new Point(r.nextDouble() * size, r.nextDouble() * size);
+            Point finish = new Point(r.nextDouble() * size, r.nextDouble() * size);
+            builder.addPath(BezierCurve.fromPoints(start, c1, c2, finish).getPath());
+            start = finish;
+        }
+        return builder.build();
+    }
+
+    static Shape starShape(int vertices, double radius) {
+        return new Shape(WindingRule.NON_ZERO, new PathContour(star(vertices, radius)));
+    }
+
+    static Point[] points(int count, double size, long seed) {
+        Random r = new Random(seed);
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new Point(r.nextDouble() * size - size * 0.5, r.nextDouble() * size - size * 0.5);
+        }
+        return points;
+    }
+
+    static double[] coords(int count, long seed) {
+        Random r = new Random(seed);
+        double[] coords = new double[count * 2];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = r.nextDouble() * 1000.0 - 500.0;
+        }
+        return coords;
+    }
+
+    // accumulates supplied coordinates so that linearization cannot be elided
+    static final class Sink implements Point.Consumer<Sink> {
+
+        double sum = 0.0;
+
+        @Override
+        public Sink addPoint(Point pt) {
+            sum += pt.x + pt.y;
+            return this;
+        }
+
+        @Override
+        public Sink addPoint(double x, double y) {
+            sum += x + y;
+            return this;
+        }
+
+        @Override
+        public Sink addPoints(double[] coords, int offset, int length) {
+            for (int i = offset, limit = offset + length; i < limit; i++) {
+                sum += coords[i];
+            }
+            return this;
+        }
+
+    }
+
+    private Fixtures() { }
+
+}
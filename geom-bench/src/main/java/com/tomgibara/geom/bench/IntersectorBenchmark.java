@@ -0,0 +1,76 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.helper.Intersector;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IntersectorBenchmark {
+
+    @Param({"16", "256"})
+    public int size;
+
+    private Path polygon;
+    private Path rotated;
+    private Path curves;
+    private Path crossing;
+
+    @Setup
+    public void setup() {
+        polygon = Fixtures.star(size, 100.0);
+        // offset so that no edges coincide and every edge crosses its neighbours in the other star
+        rotated = polygon.apply(Transform.rotation(Math.PI / size).apply(Transform.translation(7.0, 3.0)));
+        curves = Fixtures.wiggle(size / 8, 200.0, 1L).apply(Transform.translation(-100.0, -100.0));
+        crossing = curves.apply(Transform.rotateRightAngles(1));
+    }
+
+    @Benchmark
+    public int polygonWithCurves() {
+        Point.List list = new Point.List();
+        new Intersector(list).intersect(polygon, curves);
+        return list.size();
+    }
+
+    @Benchmark
+    public int polygonWithPolygon() {
+        Point.List list = new Point.List();
+        new Intersector(list).intersect(polygon, rotated);
+        return list.size();
+    }
+
+    @Benchmark
+    public int curvesWithCurves() {
+        Point.List list = new Point.List();
+        new Intersector(list).intersect(curves, crossing);
+        return list.size();
+    }
+
+    @Benchmark
+    public int polygonWithCurvesBySweep() {
+        Point.List list = new Point.List();
+        new Intersector(list).intersectBySweep(polygon, curves);
+        return list.size();
+    }
+
+    @Benchmark
+    public int polygonWithPolygonBySweep() {
+        Point.List list = new Point.List();
+        new Intersector(list).intersectBySweep(polygon, rotated);
+        return list.size();
+    }
+
+}
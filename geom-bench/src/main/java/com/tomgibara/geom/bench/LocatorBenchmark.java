@@ -0,0 +1,41 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.helper.Locator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocatorBenchmark {
+
+    @Param({"1", "32"})
+    public int curves;
+
+    private Locator locator;
+    private Point[] points;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        locator = new Locator(Fixtures.wiggle(curves, 200.0, 3L));
+        points = Fixtures.points(256, 300.0, 4L);
+    }
+
+    @Benchmark
+    public double nearestLengthAlongPath() {
+        index = (index + 1) & 255;
+        return locator.getNearestLengthAlongPath(points[index]);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.tomgibara.geom.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.helper.PathIndex;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathIndexBenchmark {
+
+    @Param({"1000", "50000"})
+    public int count;
+
+    private PathIndex index;
+    private Point[] points;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Point[] origins = Fixtures.points(count, 10000.0, 5L);
+        List<Path> paths = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            paths.add(Fixtures.wiggle(1, 40.0, j).apply(Transform.translation(origins[j].x, origins[j].y)));
+        }
+        index = new PathIndex(paths);
+        points = Fixtures.points(256, 10000.0, 6L);
+    }
+
+    @Benchmark
+    public double nearest() {
+        i = (i + 1) & 255;
+        return index.nearest(points[i]).getDistance();
+    }
+
+    @Benchmark
+    public int nearestTen() {
+        i = (i + 1) & 255;
+        return index.nearest(points[i], 10).size();
+    }
+
+    @Benchmark
+    public int within() {
+        i = (i + 1) & 255;
+        return index.within(points[i], 100.0).size();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.raster.Rasterizer;
+import com.tomgibara.geom.shape.Shape;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RasterizerBenchmark {
+
+    @Param({"16", "1024"})
+    public int size;
+
+    private Shape shape;
+    private Rasterizer rasterizer;
+    private float[] coverage;
+    private Shape large;
+    private Rasterizer tiler;
+
+    @Setup
+    public void setup() {
+        // a star filling a 256 pixel tile
+        shape = Fixtures.starShape(size, 120.0).apply(Transform.translation(128.0, 128.0));
+        rasterizer = new Rasterizer(256, 256);
+        coverage = new float[256 * 256];
+        // the same star filling a 4096 pixel image
+        large = Fixtures.starShape(size, 1920.0).apply(Transform.translation(2048.0, 2048.0));
+        tiler = new Rasterizer(4096, 4096);
+    }
+
+    @Benchmark
+    public float[] rasterize() {
+        rasterizer.rasterize(shape, coverage);
+        return coverage;
+    }
+
+    // tiles are rasterized in parallel and only their total coverage is retained
+    @Benchmark
+    public double rasterizeTiles() {
+        DoubleAdder total = new DoubleAdder();
+        tiler.rasterize(large, (x, y, w, h, tile) -> {
+            double sum = 0.0;
+            for (float c : tile) {
+                sum += c;
+            }
+            total.add(sum);
+        });
+        return total.sum();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.shape.PreparedShape;
+import com.tomgibara.geom.shape.Shape;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShapeBenchmark {
+
+    @Param({"16", "1024"})
+    public int size;
+
+    private Shape shape;
+    private PreparedShape prepared;
+    private Point[] points;
+    private double[] xs;
+    private double[] ys;
+    private boolean[] out;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        shape = Fixtures.starShape(size, 100.0);
+        points = Fixtures.points(1024, 220.0, 2L);
+        prepared = shape.prepare();
+        Point[] many = Fixtures.points(1 << 16, 220.0, 3L);
+        xs = new double[many.length];
+        ys = new double[many.length];
+        for (int i = 0; i < many.length; i++) {
+            xs[i] = many[i].x;
+            ys[i] = many[i].y;
+        }
+        out = new boolean[many.length];
+    }
+
+    @Benchmark
+    public boolean containsPoint() {
+        index = (index + 1) & 1023;
+        return shape.containsPoint(points[index]);
+    }
+
+    @Benchmark
+    public boolean preparedContains() {
+        index = (index + 1) & 1023;
+        return prepared.contains(points[index]);
+    }
+
+    // classifies 65536 points
+    @Benchmark
+    public boolean[] preparedContainsBulk() {
+        prepared.contains(xs, ys, out);
+        return out;
+    }
+
+}
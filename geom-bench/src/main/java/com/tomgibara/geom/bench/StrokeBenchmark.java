@@ -0,0 +1,51 @@
+package com.tomgibara.geom.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.contour.Contour;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.stroke.Cap;
+import com.tomgibara.geom.stroke.Join;
+import com.tomgibara.geom.stroke.Outline;
+import com.tomgibara.geom.stroke.PatternDash;
+import com.tomgibara.geom.stroke.Stroke;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StrokeBenchmark {
+
+    private Path path;
+    private Stroke plain;
+    private Stroke dashed;
+
+    @Setup
+    public void setup() {
+        // smooth, since dashes cannot yet be outlined across corners
+        path = Fixtures.cubic().getPath().apply(Transform.scale(4.0));
+        Outline outline = new Outline(Join.ROUND_JOIN, 4.0);
+        plain = new Stroke(outline, Cap.ROUND_CAP);
+        dashed = new Stroke(outline, Cap.BUTT_CAP, PatternDash.single(10.0, 5.0));
+    }
+
+    @Benchmark
+    public List<Contour> plain() {
+        return plain.stroke(path);
+    }
+
+    @Benchmark
+    public List<Contour> dashed() {
+        return dashed.stroke(path);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.tomgibara.geom.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.transform.Transform;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransformBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int points;
+
+    private final Transform translation = Transform.translation(3.5, -2.25);
+    private final Transform scale = Transform.scale(1.5, 0.75);
+    private final Transform affine = Transform.rotation(0.3).apply(Transform.translation(10.0, 20.0));
+
+    private double[] src;
+    private double[] dst;
+    private Point[] pts;
+
+    @Setup
+    public void setup() {
+        src = Fixtures.coords(points, 6L);
+        dst = new double[src.length];
+        pts = new Point[points];
+    }
+
+    @Benchmark
+    public double[] translation() {
+        translation.transform(src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public double[] scale() {
+        scale.transform(src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public double[] affine() {
+        affine.transform(src, dst);
+        return dst;
+    }
+
+    // the generic scalar path that the bulk methods replaced: a switch on the matrix shape for each point
+    @Benchmark
+    public double[] affineScalar() {
+        for (int i = 0; i < src.length; i += 2) {
+            Point pt = affine.transform(src[i], src[i + 1]);
+            dst[i    ] = pt.x;
+            dst[i + 1] = pt.y;
+        }
+        return dst;
+    }
+
+    // the same work through Point objects, for comparison with the bulk methods
+    @Benchmark
+    public Point[] affinePoints() {
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new Point(src[2 * i], src[2 * i + 1]);
+        }
+        affine.transform(pts);
+        return pts;
+    }
+
+}
@@ -34,13 +34,99 @@ public class GeomUtil {
         return fs;
     }
 
+    // reverses the order of points stored as consecutive x,y pairs
     public static void reversePointArray(double[] fs) {
         int i = 0;
-        int j = fs.length - 1;
+        int j = fs.length - 2;
         while (j > i) {
-            double t = fs[i];
-            fs[i++] = fs[j];
-            fs[j--] = t;
+            double x = fs[i    ];
+            double y = fs[i + 1];
+            fs[i    ] = fs[j    ];
+            fs[i + 1] = fs[j + 1];
+            fs[j    ] = x;
+            fs[j + 1] = y;
+            i += 2;
+            j -= 2;
+        }
+    }
+
+    // reverses the order of points stored as consecutive x,y pairs
+    public static void reversePointArray(float[] fs) {
+        int i = 0;
+        int j = fs.length - 2;
+        while (j > i) {
+            float x = fs[i    ];
+            float y = fs[i + 1];
+            fs[i    ] = fs[j    ];
+            fs[i + 1] = fs[j + 1];
+            fs[j    ] = x;
+            fs[j + 1] = y;
+            i += 2;
+            j -= 2;
+        }
+    }
+
+    // the bounds of at least one point stored as consecutive x,y pairs
+    public static Rect pointBounds(float[] fs) {
+        if (fs == null) throw new IllegalArgumentException("null fs");
+        if (fs.length < 2) throw new IllegalArgumentException("no points");
+        float minX = fs[0];
+        float minY = fs[1];
+        float maxX = minX;
+        float maxY = minY;
+        for (int i = 2; i < fs.length; i += 2) {
+            float x = fs[i    ];
+            float y = fs[i + 1];
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        return Rect.atPoints(minX, minY, maxX, maxY);
+    }
+
+    // the indices of the first count keys in increasing order of key, with equal keys left in index order
+    // a merge sort over primitive indices, which avoids boxing each index to sort it with a comparator
+    public static int[] sortedIndices(double[] keys, int count) {
+        if (keys == null) throw new IllegalArgumentException("null keys");
+        if (count < 0 || count > keys.length) throw new IllegalArgumentException("invalid count");
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        if (count > 1) mergeSort(keys, order, order.clone(), 0, count);
+        return order;
+    }
+
+    // sorts the range of dst, using src as scratch, which holds the same indices on entry
+    private static void mergeSort(double[] keys, int[] dst, int[] src, int from, int to) {
+        int length = to - from;
+        if (length < 8) {
+            for (int i = from + 1; i < to; i++) {
+                int index = dst[i];
+                double key = keys[index];
+                int j = i;
+                for (; j > from && Double.compare(keys[dst[j - 1]], key) > 0; j--) {
+                    dst[j] = dst[j - 1];
+                }
+                dst[j] = index;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        // sort each half of src, using dst as scratch, then merge them into dst
+        mergeSort(keys, src, dst, from, mid);
+        mergeSort(keys, src, dst, mid, to);
+        if (Double.compare(keys[src[mid - 1]], keys[src[mid]]) <= 0) {
+            System.arraycopy(src, from, dst, from, length);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || p < mid && Double.compare(keys[src[p]], keys[src[q]]) <= 0) {
+                dst[i] = src[p++];
+            } else {
+                dst[i] = src[q++];
+            }
         }
     }
 
@@ -64,4 +150,40 @@ public class GeomUtil {
         return points;
     }
 
+    // narrows each coordinate to the nearest float
+    public static float[] toFloats(double[] ds) {
+        if (ds == null) throw new IllegalArgumentException("null ds");
+        float[] fs = new float[ds.length];
+        for (int i = 0; i < fs.length; i++) {
+            fs[i] = (float) ds[i];
+        }
+        return fs;
+    }
+
+    public static double[] toDoubles(float[] fs) {
+        if (fs == null) throw new IllegalArgumentException("null fs");
+        double[] ds = new double[fs.length];
+        for (int i = 0; i < ds.length; i++) {
+            ds[i] = fs[i];
+        }
+        return ds;
+    }
+
+    // supplies single precision coordinates to a consumer, widening them in chunks
+    public static <C> C addPoints(Point.Consumer<C> consumer, float[] coords, int offset, int length) {
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        if (coords == null) throw new IllegalArgumentException("null coords");
+        if ((length & 1) != 0) throw new IllegalArgumentException("odd length");
+        double[] buffer = new double[Math.min(length, 128)];
+        C c = null;
+        for (int i = offset, limit = offset + length; i < limit;) {
+            int n = Math.min(buffer.length, limit - i);
+            for (int j = 0; j < n; j++) {
+                buffer[j] = coords[i++];
+            }
+            c = consumer.addPoints(buffer, 0, n);
+        }
+        return c;
+    }
+
 }
@@ -35,6 +35,18 @@ public final class Point implements Geometric {
 
         C addPoint(double x, double y);
 
+        // supplies points as length coordinates in consecutive x,y pairs from the offset
+        // override to process coordinates in bulk
+        default C addPoints(double[] coords, int offset, int length) {
+            if (coords == null) throw new IllegalArgumentException("null coords");
+            if ((length & 1) != 0) throw new IllegalArgumentException("odd length");
+            C c = null;
+            for (int i = offset, limit = offset + length; i < limit; i += 2) {
+                c = addPoint(coords[i], coords[i + 1]);
+            }
+            return c;
+        }
+
     }
 
     public static class List extends ArrayList<Point> implements Consumer<List> {
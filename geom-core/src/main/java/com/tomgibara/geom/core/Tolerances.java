@@ -1,5 +1,7 @@
 package com.tomgibara.geom.core;
 
+import com.tomgibara.geom.transform.Transform;
+
 public class Tolerances {
 
     private static final Tolerances DEFAULTS = new Tolerances(new Builder());
@@ -7,6 +9,7 @@ public class Tolerances {
     //TODO is there really a maximum?
     public static final int MAX_ITERATION_STEPS = 20;
     public static final int MAX_QUADRATURE_STEPS = 20;
+    public static final int MAX_LENGTH_TABLE_SIZE = 4096;
 
     public static Tolerances defaults() {
         return DEFAULTS;
@@ -28,6 +31,13 @@ public class Tolerances {
         private double shortestNonLinearCurve;
         // as a proportion of distance
         private double leastNonLinearDeviation;
+        // zero disables arc length tables
+        private int lengthTableSize;
+        // adaptive quadrature is used for lengths if either is positive
+        private double absoluteLengthTolerance;
+        private double relativeLengthTolerance;
+        // greatest distance permitted between a curve and its linearization
+        private double flatness;
 
         private Builder() {
             iterationSteps = MAX_ITERATION_STEPS;
@@ -40,6 +50,10 @@ public class Tolerances {
             cornerTolerance = 0.005;
             shortestNonLinearCurve = 1.0;
             leastNonLinearDeviation = 0.05;
+            lengthTableSize = 0;
+            absoluteLengthTolerance = 0.0;
+            relativeLengthTolerance = 0.0;
+            flatness = 0.25;
         }
 
         private Builder(Tolerances tolerances) {
@@ -48,9 +62,13 @@ public class Tolerances {
             differential = tolerances.differential;
             continuityTolerance = tolerances.continuityTolerance;
             splitRecursionLimit = tolerances.splitRecursionLimit;
-            continuityTolerance = tolerances.cornerTolerance;
+            cornerTolerance = tolerances.cornerTolerance;
             shortestNonLinearCurve = tolerances.shortestNonLinearCurve;
             leastNonLinearDeviation = tolerances.leastNonLinearDeviation;
+            lengthTableSize = tolerances.lengthTableSize;
+            absoluteLengthTolerance = tolerances.absoluteLengthTolerance;
+            relativeLengthTolerance = tolerances.relativeLengthTolerance;
+            flatness = tolerances.flatness;
         }
 
         public Builder setIterationSteps(int iterationSteps) {
@@ -97,6 +115,31 @@ public class Tolerances {
             return this;
         }
 
+        public Builder setLengthTableSize(int lengthTableSize) {
+            if (lengthTableSize < 0) throw new IllegalArgumentException("negative lengthTableSize");
+            if (lengthTableSize > MAX_LENGTH_TABLE_SIZE) lengthTableSize = MAX_LENGTH_TABLE_SIZE;
+            this.lengthTableSize = lengthTableSize;
+            return this;
+        }
+
+        public Builder setAbsoluteLengthTolerance(double absoluteLengthTolerance) {
+            if (absoluteLengthTolerance < 0.0) throw new IllegalArgumentException("invalid absoluteLengthTolerance");
+            this.absoluteLengthTolerance = absoluteLengthTolerance;
+            return this;
+        }
+
+        public Builder setRelativeLengthTolerance(double relativeLengthTolerance) {
+            if (relativeLengthTolerance < 0.0) throw new IllegalArgumentException("invalid relativeLengthTolerance");
+            this.relativeLengthTolerance = relativeLengthTolerance;
+            return this;
+        }
+
+        public Builder setFlatness(double flatness) {
+            if (flatness <= 0.0) throw new IllegalArgumentException("invalid flatness");
+            this.flatness = flatness;
+            return this;
+        }
+
         public Tolerances build() {
             return new Tolerances(this);
         }
@@ -114,6 +157,10 @@ public class Tolerances {
     final double powShortestNonLinearCurve;
     private final double leastNonLinearDeviation;
     final double powLeastNonLinearDeviation;
+    private final int lengthTableSize;
+    private final double absoluteLengthTolerance;
+    private final double relativeLengthTolerance;
+    private final double flatness;
 
     private Tolerances(Builder builder) {
         this.iterationSteps = builder.iterationSteps;
@@ -127,12 +174,32 @@ public class Tolerances {
         this.powShortestNonLinearCurve = builder.shortestNonLinearCurve * builder.shortestNonLinearCurve;
         this.leastNonLinearDeviation = builder.leastNonLinearDeviation;
         powLeastNonLinearDeviation = builder.leastNonLinearDeviation * builder.leastNonLinearDeviation;
+        this.lengthTableSize = builder.lengthTableSize;
+        this.absoluteLengthTolerance = builder.absoluteLengthTolerance;
+        this.relativeLengthTolerance = builder.relativeLengthTolerance;
+        this.flatness = builder.flatness;
     }
 
     public Builder builder() {
         return this == DEFAULTS ? new Builder() : new Builder(this);
     }
 
+    // tolerances for linearizing geometry that is viewed through the transform, so that its linearization deviates
+    // from it by no more than the device error once transformed; only the tolerances measured as distances are
+    // rescaled, with the shortest non-linear curve keeping its proportion to the flatness
+    // these are intended to be entered into a context around linearizations for the view
+    public Tolerances forView(Transform view, double deviceError) {
+        if (view == null) throw new IllegalArgumentException("null view");
+        if (!(deviceError > 0.0)) throw new IllegalArgumentException("invalid deviceError");
+        double scale = view.getMaximumScale();
+        if (!(scale > 0.0) || scale == Double.POSITIVE_INFINITY) throw new IllegalArgumentException("degenerate view");
+        double f = deviceError / scale;
+        return builder()
+                .setFlatness(f)
+                .setShortestNonLinearCurve(shortestNonLinearCurve * f / flatness)
+                .build();
+    }
+
     public int getIterationSteps() {
         return iterationSteps;
     }
@@ -165,4 +232,26 @@ public class Tolerances {
         return leastNonLinearDeviation;
     }
 
+    // the number of intervals in the arc length table cached by each curve, zero if tables are not used
+    public int getLengthTableSize() {
+        return lengthTableSize;
+    }
+
+    public double getAbsoluteLengthTolerance() {
+        return absoluteLengthTolerance;
+    }
+
+    public double getRelativeLengthTolerance() {
+        return relativeLengthTolerance;
+    }
+
+    public double getFlatness() {
+        return flatness;
+    }
+
+    // whether lengths are integrated adaptively to the length tolerances, rather than with a fixed number of quadrature steps
+    public boolean isAdaptiveQuadrature() {
+        return absoluteLengthTolerance > 0.0 || relativeLengthTolerance > 0.0;
+    }
+
 }
@@ -0,0 +1,434 @@
+package com.tomgibara.geom.curve;
+
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.GeomUtil;
+
+// finds the parameters at which bezier curves cross lines and other bezier curves, nearest points and extremes
+// lines are handled by root finding on the implicit line equation, curves by fat-line clipping;
+// both converge quadratically at transversal intersections
+final class BezierClipper {
+
+    // the width of parameter interval at which an intersection is considered found
+    private static final double PARAMETER_EPSILON = 1e-13;
+    // clipping that removes less than this fraction of a curve is abandoned in favour of subdivision
+    private static final double MIN_REDUCTION = 0.2;
+    // bounds the work done on overlapping or nearly tangent curves
+    private static final int CLIP_BUDGET = 1 << 12;
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_NEWTON_ITERATIONS = 64;
+
+    // parameters in [0,1] at which the curve crosses the infinite line through (x0, y0) and (x1, y1)
+    static double[] lineParameters(double[] coords, double x0, double y0, double x1, double y1) {
+        double nx = y0 - y1;
+        double ny = x1 - x0;
+        int size = coords.length / 2;
+        double[] d = new double[size];
+        for (int i = 0; i < size; i++) {
+            d[i] = nx * (coords[2 * i] - x0) + ny * (coords[2 * i + 1] - y0);
+        }
+        // a curve lying along the line has all coefficients zero and so no isolated crossings
+        return roots(d);
+    }
+
+    // the parameter in [0,1] of the point on the curve nearest to (x, y)
+    static double nearestParameter(double[] coords, double x, double y) {
+        int n = coords.length / 2 - 1;
+        if (n == 0) return 0.0;
+        // the nearest point is an end point or a root of (P(t) - q).P'(t), a polynomial of degree 2n-1
+        int degree = 2 * n - 1;
+        double[] w = new double[degree + 1];
+        for (int i = 0; i <= n; i++) {
+            double cx = coords[2 * i    ] - x;
+            double cy = coords[2 * i + 1] - y;
+            for (int j = 0; j < n; j++) {
+                double dx = n * (coords[2 * j + 2] - coords[2 * j    ]);
+                double dy = n * (coords[2 * j + 3] - coords[2 * j + 1]);
+                w[i + j] += binomial(n, i) * binomial(n - 1, j) * (cx * dx + cy * dy);
+            }
+        }
+        for (int k = 0; k <= degree; k++) {
+            w[k] /= binomial(degree, k);
+        }
+        double best = 0.0;
+        double bestDist = distanceSqr(coords, 0.0, x, y);
+        double endDist = distanceSqr(coords, 1.0, x, y);
+        if (endDist < bestDist) {
+            best = 1.0;
+            bestDist = endDist;
+        }
+        for (double t : roots(w)) {
+            double dist = distanceSqr(coords, t, x, y);
+            if (dist < bestDist) {
+                best = t;
+                bestDist = dist;
+            }
+        }
+        return best;
+    }
+
+    // parameters in (0,1) at which the x (offset 0) or y (offset 1) coordinate of the curve is stationary
+    static double[] stationaryParameters(double[] coords, int offset) {
+        // the derivative has bernstein coefficients proportional to the differences of the control coordinates
+        int n = coords.length / 2 - 1;
+        if (n < 2) return new double[0];
+        double[] d = new double[n];
+        for (int i = 0; i < n; i++) {
+            d[i] = coords[2 * i + 2 + offset] - coords[2 * i + offset];
+        }
+        double[] ts;
+        switch (n) {
+        case 2 :
+            // a linear derivative
+            ts = d[0] == d[1] ? new double[0] : new double[] { d[0] / (d[0] - d[1]) };
+            break;
+        case 3 : {
+            // a quadratic derivative, a t^2 + b t + c
+            double a = d[0] - 2.0 * d[1] + d[2];
+            double b = 2.0 * (d[1] - d[0]);
+            double c = d[0];
+            if (a == 0.0) {
+                ts = b == 0.0 ? new double[0] : new double[] { -c / b };
+            } else {
+                double disc = b * b - 4.0 * a * c;
+                if (disc < 0.0) {
+                    ts = new double[0];
+                } else {
+                    // avoids cancellation between b and the square root
+                    double q = -0.5 * (b + Math.copySign(Math.sqrt(disc), b));
+                    ts = q == 0.0 ? new double[] { 0.0 } : new double[] { q / a, c / q };
+                }
+            }
+            break;
+        }
+        default :
+            ts = roots(d);
+        }
+        int count = 0;
+        for (double t : ts) {
+            if (t > 0.0 && t < 1.0) ts[count++] = t;
+        }
+        return count == ts.length ? ts : Arrays.copyOf(ts, count);
+    }
+
+    // roots in [0,1] of the polynomial with bernstein coefficients d, none if it is identically zero
+    private static double[] roots(double[] d) {
+        boolean zero = true;
+        for (double c : d) {
+            if (c != 0.0) zero = false;
+        }
+        if (zero) return new double[0];
+        BezierClipper clipper = new BezierClipper(1);
+        clipper.roots(d, 0.0, 1.0, 0);
+        return clipper.results();
+    }
+
+    private static double binomial(int n, int k) {
+        double b = 1.0;
+        for (int i = 1; i <= k; i++) {
+            b = b * (n - k + i) / i;
+        }
+        return b;
+    }
+
+    private static double distanceSqr(double[] coords, double t, double x, double y) {
+        int length = coords.length;
+        double s = 1.0 - t;
+        double[] fs = coords.clone();
+        for (int k = length - 2; k > 0; k -= 2) {
+            for (int i = 0; i < k; i += 2) {
+                fs[i    ] = fs[i    ] * s + fs[i + 2] * t;
+                fs[i + 1] = fs[i + 1] * s + fs[i + 3] * t;
+            }
+        }
+        double dx = fs[0] - x;
+        double dy = fs[1] - y;
+        return dx * dx + dy * dy;
+    }
+
+    // parameter pairs (t1, t2) at which the curves cross, ordered by t1; null if the curves overlap
+    static double[] curveParameters(double[] coords1, double[] coords2) {
+        BezierClipper clipper = new BezierClipper(2);
+        if (!clipper.clip(coords1, 0.0, 1.0, coords2, 0.0, 1.0, false, 0)) return null;
+        return clipper.results();
+    }
+
+    private final int stride;
+    private double[] results = new double[8];
+    private int count = 0;
+    private int budget = CLIP_BUDGET;
+
+    private BezierClipper(int stride) {
+        this.stride = stride;
+    }
+
+    // lines
+
+    // records roots of the bernstein polynomial d over [t0, t1]
+    private void roots(double[] d, double t0, double t1, int depth) {
+        int n = d.length - 1;
+        boolean positive = true;
+        boolean negative = true;
+        boolean increasing = true;
+        boolean decreasing = true;
+        for (int i = 0; i <= n; i++) {
+            if (d[i] <= 0.0) positive = false;
+            if (d[i] >= 0.0) negative = false;
+            if (i > 0) {
+                if (d[i] < d[i - 1]) increasing = false;
+                if (d[i] > d[i - 1]) decreasing = false;
+            }
+        }
+        // by the convex hull property there can be no root
+        if (positive || negative) return;
+        if (increasing || decreasing) {
+            // monotonic coefficients give a monotonic polynomial and so a single root
+            record(t0 + (t1 - t0) * newton(d));
+        } else if (t1 - t0 < PARAMETER_EPSILON || depth == MAX_DEPTH) {
+            record((t0 + t1) * 0.5);
+        } else {
+            double[] lower = new double[n + 1];
+            double[] upper = new double[n + 1];
+            split(d, lower, upper);
+            double t = (t0 + t1) * 0.5;
+            roots(lower, t0, t, depth + 1);
+            roots(upper, t, t1, depth + 1);
+        }
+    }
+
+    // the single root in [0,1] of a monotonic bernstein polynomial, by newton's method safeguarded with bisection
+    private static double newton(double[] d) {
+        int n = d.length - 1;
+        if (d[0] == 0.0) return 0.0;
+        if (d[n] == 0.0) return 1.0;
+        double lo = 0.0;
+        double hi = 1.0;
+        boolean rising = d[n] > d[0];
+        double u = d[0] / (d[0] - d[n]);
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            double f = evaluate(d, u);
+            if (f == 0.0) return u;
+            if (f > 0.0 == rising) hi = u; else lo = u;
+            double df = derivative(d, u);
+            double v = df == 0.0 ? Double.NaN : u - f / df;
+            if (!(v > lo && v < hi)) v = (lo + hi) * 0.5;
+            if (Math.abs(v - u) <= Math.ulp(u) || hi - lo <= Math.ulp(hi)) return v;
+            u = v;
+        }
+        return u;
+    }
+
+    private static double evaluate(double[] d, double u) {
+        int n = d.length - 1;
+        double s = 1.0 - u;
+        double[] fs = d.clone();
+        for (int k = n; k > 0; k--) {
+            for (int i = 0; i < k; i++) {
+                fs[i] = fs[i] * s + fs[i + 1] * u;
+            }
+        }
+        return fs[0];
+    }
+
+    private static double derivative(double[] d, double u) {
+        int n = d.length - 1;
+        double[] ds = new double[n];
+        for (int i = 0; i < n; i++) {
+            ds[i] = (d[i + 1] - d[i]) * n;
+        }
+        return evaluate(ds, u);
+    }
+
+    // splits scalar bernstein coefficients at one half
+    private static void split(double[] d, double[] lower, double[] upper) {
+        int n = d.length - 1;
+        double[] fs = d.clone();
+        lower[0] = fs[0];
+        upper[n] = fs[n];
+        for (int k = n; k > 0; k--) {
+            for (int i = 0; i < k; i++) {
+                fs[i] = (fs[i] + fs[i + 1]) * 0.5;
+            }
+            lower[n - k + 1] = fs[0];
+            upper[k - 1] = fs[k - 1];
+        }
+    }
+
+    // curves
+
+    // clips a against the fat line of b; returns false if the work budget is exhausted
+    private boolean clip(double[] a, double a0, double a1, double[] b, double b0, double b1, boolean swapped, int depth) {
+        if (--budget < 0 || depth == MAX_DEPTH) return false;
+        // converged intervals are tested first since rounding can separate their bounds
+        if (a1 - a0 < PARAMETER_EPSILON && b1 - b0 < PARAMETER_EPSILON) {
+            double ta = (a0 + a1) * 0.5;
+            double tb = (b0 + b1) * 0.5;
+            if (swapped) record(tb, ta); else record(ta, tb);
+            return true;
+        }
+        if (!boundsOverlap(a, b)) return true;
+
+        int last = b.length - 2;
+        double lx = b[last    ] - b[0];
+        double ly = b[last + 1] - b[1];
+        double length = Math.sqrt(lx * lx + ly * ly);
+        double[] range = null;
+        if (length > 0.0) {
+            // signed distances from the chord of b bound b within a fat line
+            double dmin = 0.0;
+            double dmax = 0.0;
+            for (int i = 2; i < last; i += 2) {
+                double dist = (lx * (b[i + 1] - b[1]) - ly * (b[i] - b[0])) / length;
+                dmin = Math.min(dmin, dist);
+                dmax = Math.max(dmax, dist);
+            }
+            int size = a.length / 2;
+            double[] d = new double[size];
+            for (int i = 0; i < size; i++) {
+                d[i] = (lx * (a[2 * i + 1] - b[1]) - ly * (a[2 * i] - b[0])) / length;
+            }
+            range = clipHull(d, dmin, dmax);
+            if (range == null) return true;
+        }
+
+        if (range == null || range[1] - range[0] > 1.0 - MIN_REDUCTION) {
+            // too little progress, so halve the curve with the wider interval
+            if (a1 - a0 >= b1 - b0) {
+                double[][] halves = halve(a);
+                double am = (a0 + a1) * 0.5;
+                return clip(b, b0, b1, halves[0], a0, am, !swapped, depth + 1)
+                    && clip(b, b0, b1, halves[1], am, a1, !swapped, depth + 1);
+            } else {
+                double[][] halves = halve(b);
+                double bm = (b0 + b1) * 0.5;
+                return clip(halves[0], b0, bm, a, a0, a1, !swapped, depth + 1)
+                    && clip(halves[1], bm, b1, a, a0, a1, !swapped, depth + 1);
+            }
+        }
+
+        double[] clipped = segment(a, range[0], range[1]);
+        double c0 = a0 + (a1 - a0) * range[0];
+        double c1 = a0 + (a1 - a0) * range[1];
+        return clip(b, b0, b1, clipped, c0, c1, !swapped, depth);
+    }
+
+    // the parameter range over which the hull of the points (i/n, d[i]) lies between dmin and dmax, or null
+    private static double[] clipHull(double[] d, double dmin, double dmax) {
+        int n = d.length - 1;
+        double tmin = Double.POSITIVE_INFINITY;
+        double tmax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i <= n; i++) {
+            if (d[i] >= dmin && d[i] <= dmax) {
+                double t = (double) i / n;
+                tmin = Math.min(tmin, t);
+                tmax = Math.max(tmax, t);
+            }
+            // every edge of the hull is among the segments between pairs of points
+            for (int j = i + 1; j <= n; j++) {
+                double ti = (double) i / n;
+                double tj = (double) j / n;
+                for (double bound = dmin; ; bound = dmax) {
+                    if ((d[i] - bound) * (d[j] - bound) < 0.0) {
+                        double t = ti + (tj - ti) * (bound - d[i]) / (d[j] - d[i]);
+                        tmin = Math.min(tmin, t);
+                        tmax = Math.max(tmax, t);
+                    }
+                    if (bound == dmax) break;
+                }
+            }
+        }
+        if (tmin > tmax) return null;
+        return new double[] { Math.max(0.0, tmin), Math.min(1.0, tmax) };
+    }
+
+    private static boolean boundsOverlap(double[] a, double[] b) {
+        return min(a, 0) <= max(b, 0) && min(b, 0) <= max(a, 0) && min(a, 1) <= max(b, 1) && min(b, 1) <= max(a, 1);
+    }
+
+    private static double min(double[] coords, int offset) {
+        double min = coords[offset];
+        for (int i = offset + 2; i < coords.length; i += 2) {
+            min = Math.min(min, coords[i]);
+        }
+        return min;
+    }
+
+    private static double max(double[] coords, int offset) {
+        double max = coords[offset];
+        for (int i = offset + 2; i < coords.length; i += 2) {
+            max = Math.max(max, coords[i]);
+        }
+        return max;
+    }
+
+    // control points of the curve restricted to [t0, t1]
+    private static double[] segment(double[] coords, double t0, double t1) {
+        double[] tail = t0 == 0.0 ? coords : divide(coords, t0)[1];
+        if (t1 == 1.0) return tail;
+        return divide(tail, (t1 - t0) / (1.0 - t0))[0];
+    }
+
+    private static double[][] halve(double[] coords) {
+        return divide(coords, 0.5);
+    }
+
+    // de casteljau subdivision into the curves before and after t
+    private static double[][] divide(double[] coords, double t) {
+        int length = coords.length;
+        int n = length / 2 - 1;
+        double s = 1.0 - t;
+        double[] fs = coords.clone();
+        double[] lower = new double[length];
+        double[] upper = new double[length];
+        lower[0] = fs[0];
+        lower[1] = fs[1];
+        upper[length - 2] = fs[length - 2];
+        upper[length - 1] = fs[length - 1];
+        for (int k = n; k > 0; k--) {
+            for (int i = 0; i < 2 * k; i += 2) {
+                fs[i    ] = fs[i    ] * s + fs[i + 2] * t;
+                fs[i + 1] = fs[i + 1] * s + fs[i + 3] * t;
+            }
+            lower[2 * (n - k + 1)    ] = fs[0];
+            lower[2 * (n - k + 1) + 1] = fs[1];
+            upper[2 * (k - 1)    ] = fs[2 * (k - 1)    ];
+            upper[2 * (k - 1) + 1] = fs[2 * (k - 1) + 1];
+        }
+        return new double[][] { lower, upper };
+    }
+
+    // results
+
+    private void record(double... ts) {
+        if (count + stride > results.length) results = Arrays.copyOf(results, results.length * 2);
+        System.arraycopy(ts, 0, results, count, stride);
+        count += stride;
+    }
+
+    // sorted by first parameter, with intersections found twice across a subdivision removed
+    private double[] results() {
+        int n = count / stride;
+        double[] rs = results;
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = rs[i * stride];
+        }
+        double[] sorted = new double[count];
+        int length = 0;
+        for (int i : GeomUtil.sortedIndices(keys, n)) {
+            int index = i * stride;
+            if (length > 0 && isDuplicate(sorted, length - stride, rs, index)) continue;
+            System.arraycopy(rs, index, sorted, length, stride);
+            length += stride;
+        }
+        return Arrays.copyOf(sorted, length);
+    }
+
+    private boolean isDuplicate(double[] a, int i, double[] b, int j) {
+        for (int k = 0; k < stride; k++) {
+            if (Math.abs(a[i + k] - b[j + k]) > PARAMETER_EPSILON * 16) return false;
+        }
+        return true;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.tomgibara.geom.curve;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -9,6 +10,7 @@ import com.tomgibara.geom.core.LineSegment;
 import com.tomgibara.geom.core.Norm;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
 import com.tomgibara.geom.core.Vector;
 import com.tomgibara.geom.helper.Bounder;
 import com.tomgibara.geom.path.Path;
@@ -45,6 +47,9 @@ public final class BezierCurve extends Curve {
 
     // fields
 
+    // the relative distance beyond the end of a segment within which a crossing is still reported
+    private static final double SEGMENT_TOLERANCE = 1e-12;
+
     private final int order;
     private final double[] coords;
     private final List<Point> points;
@@ -86,6 +91,16 @@ public final class BezierCurve extends Curve {
         return points;
     }
 
+    // a copy of the control points as consecutive x,y pairs
+    public double[] getCoords() {
+        return coords.clone();
+    }
+
+    // the bounds of the control points; these contain the curve and are cheaper to obtain than its exact bounds
+    public Rect getHullBounds() {
+        return new Bounder().addPoints(coords, 0, coords.length).getBounds();
+    }
+
     @Override
     public Point pointAt(double t) {
         if (t <= 0) return points.get(0);
@@ -151,6 +166,40 @@ public final class BezierCurve extends Curve {
         }
     }
 
+    // parameters, in increasing order, at which this curve crosses the segment
+    public double[] intersectionParameters(LineSegment segment) {
+        if (segment == null) throw new IllegalArgumentException("null segment");
+        Point start = segment.getStart();
+        Point finish = segment.getFinish();
+        if (start.equals(finish)) return new double[0];
+        double[] ts = BezierClipper.lineParameters(coords, start.x, start.y, finish.x, finish.y);
+        // discard crossings of the line beyond the ends of the segment
+        double dx = finish.x - start.x;
+        double dy = finish.y - start.y;
+        double lengthSqr = dx * dx + dy * dy;
+        int count = 0;
+        for (double t : ts) {
+            Point pt = pointAt(t);
+            double s = ((pt.x - start.x) * dx + (pt.y - start.y) * dy) / lengthSqr;
+            if (s >= -SEGMENT_TOLERANCE && s <= 1.0 + SEGMENT_TOLERANCE) ts[count++] = t;
+        }
+        return count == ts.length ? ts : Arrays.copyOf(ts, count);
+    }
+
+    // parameter pairs (t on this curve, t on that) at which the curves cross, ordered by the first
+    // null if the intersections cannot be isolated, as when the curves overlap
+    public double[] intersectionParameters(BezierCurve that) {
+        if (that == null) throw new IllegalArgumentException("null that");
+        return BezierClipper.curveParameters(coords, that.coords);
+    }
+
+    // exact, by solving for the roots of (P(t) - pt).P'(t)
+    @Override
+    public double parameterNearest(Point pt) {
+        if (pt == null) throw new IllegalArgumentException("null pt");
+        return BezierClipper.nearestParameter(coords, pt.x, pt.y);
+    }
+
     @Override
     // note: splits into smaller beziers
     public SplitCurvePath splitAt(double t) {
@@ -223,6 +272,22 @@ public final class BezierCurve extends Curve {
         return fs;
     }
 
+    // exact, from the end points and the points at which either coordinate is stationary
+    static Rect exactBounds(double[] coords) {
+        Bounder consumer = new Bounder();
+        consumer.addPoints(coords, 0, 2);
+        consumer.addPoints(coords, coords.length - 2, 2);
+        for (double t : BezierClipper.stationaryParameters(coords, 0)) {
+            double[] fs = computeCasteljau(t, coords);
+            consumer.addPoint(fs[0], fs[1]);
+        }
+        for (double t : BezierClipper.stationaryParameters(coords, 1)) {
+            double[] fs = computeCasteljau(t, coords);
+            consumer.addPoint(fs[0], fs[1]);
+        }
+        return consumer.getBounds();
+    }
+
     private BezierCurve curveFrom(double t, double[] fs) {
         if (t <= 0) return this;
         if (t >= 1) return new BezierCurve(points.get(order));
@@ -298,14 +363,13 @@ public final class BezierCurve extends Curve {
                 consumer.addPoint(z.points.get(0));
                 return consumer.addPoint(z.points.get(1));
             default:
-                SplitCurvePath curves = ((BezierCurve)z).splitAt(0.5);
-                curves.getFirstPath().simplifyCurve().linearize(consumer);
-                return curves.getLastPath().simplifyCurve().linearize(consumer);
+                int segments = BezierFlattener.segmentCount(z.coords, z.order, Tolerances.current().getFlatness());
+                return BezierFlattener.flatten(z.coords, z.order, segments, getStart(), getFinish(), consumer);
             }
         }
 
         @Override
-        public SimplifiedPath simplify() {
+        protected SimplifiedPath computeSimplified() {
             switch (z.order) {
             //TODO disallow zero order curve
             case 0 : return new SimplifiedPath(LineSegment.fromPoint(z.points.get(0), Vector.UNIT_X).getPath());
@@ -370,11 +434,7 @@ public final class BezierCurve extends Curve {
         }
 
         protected Rect computeBounds() {
-            Bounder consumer = new Bounder();
-            for (Point point : z.points) {
-                consumer.addPoint(point);
-            }
-            return consumer.getBounds();
+            return exactBounds(z.coords);
         }
 
     }
@@ -0,0 +1,94 @@
+package com.tomgibara.geom.curve;
+
+import com.tomgibara.geom.core.Point;
+
+// linearizes bezier curves of any order without subdividing them
+// the number of segments is bounded up front using Wang's formula and points are generated by forward differencing
+final class BezierFlattener {
+
+    // guards against pathological control points or tolerances
+    static final int MAX_SEGMENTS = 1 << 16;
+    private static final int RESEED_INTERVAL = 64;
+    // the number of points supplied to consumers at once
+    private static final int CHUNK_SIZE = 64;
+
+    // the number of equal parameter steps needed to keep within flatness of the curve
+    static int segmentCount(double[] coords, int order, double flatness) {
+        if (order < 2) return 1;
+        // the greatest second difference of the control points bounds the second derivative
+        double max = 0.0;
+        for (int i = 0; i < order - 1; i++) {
+            int j = i * 2;
+            double dx = coords[j    ] - 2 * coords[j + 2] + coords[j + 4];
+            double dy = coords[j + 1] - 2 * coords[j + 3] + coords[j + 5];
+            max = Math.max(max, dx * dx + dy * dy);
+        }
+        if (max == 0.0) return 1;
+        double n = Math.ceil(Math.sqrt(Math.sqrt(max) * order * (order - 1) / (8 * flatness)));
+        return n >= MAX_SEGMENTS ? MAX_SEGMENTS : Math.max((int) n, 1);
+    }
+
+    // supplies every point of the linearization, including both end points, in chunks
+    static <K> K flatten(double[] coords, int order, int segments, Point start, Point finish, Point.Consumer<K> consumer) {
+        double[] buffer = new double[Math.min(segments + 1, CHUNK_SIZE) * 2];
+        buffer[0] = start.x;
+        buffer[1] = start.y;
+        int j = 2;
+        if (segments > 1) {
+            int size = order + 1;
+            double[] xs = new double[size];
+            double[] ys = new double[size];
+            double[] ws = new double[size * 2];
+            double h = 1.0 / segments;
+            for (int s = 1; s < segments; s++) {
+                // rounding errors accumulate, so the differences are periodically recomputed
+                if ((s - 1) % RESEED_INTERVAL == 0) differences(coords, order, (s - 1) * h, h, ws, xs, ys);
+                for (int i = 0; i < order; i++) {
+                    xs[i] += xs[i + 1];
+                    ys[i] += ys[i + 1];
+                }
+                if (j == buffer.length) {
+                    consumer.addPoints(buffer, 0, buffer.length);
+                    j = 0;
+                }
+                buffer[j++] = xs[0];
+                buffer[j++] = ys[0];
+            }
+        }
+        if (j == buffer.length) {
+            consumer.addPoints(buffer, 0, buffer.length);
+            j = 0;
+        }
+        buffer[j++] = finish.x;
+        buffer[j++] = finish.y;
+        return consumer.addPoints(buffer, 0, j);
+    }
+
+    // populates a table of forward differences for steps of h from t
+    private static void differences(double[] coords, int order, double t, double h, double[] ws, double[] xs, double[] ys) {
+        // sample the curve at the first order + 1 steps, these may extend beyond the curve
+        for (int i = 0; i <= order; i++) {
+            sample(coords, order, t + i * h, ws, xs, ys, i);
+        }
+        for (int d = 1; d <= order; d++) {
+            for (int i = order; i >= d; i--) {
+                xs[i] -= xs[i - 1];
+                ys[i] -= ys[i - 1];
+            }
+        }
+    }
+
+    // evaluates the curve at t by de Casteljau's algorithm, which extrapolates equally well
+    private static void sample(double[] coords, int order, double t, double[] ws, double[] xs, double[] ys, int index) {
+        System.arraycopy(coords, 0, ws, 0, ws.length);
+        double s = 1.0 - t;
+        for (int n = order * 2; n > 0; n -= 2) {
+            for (int i = 0; i < n; i++) {
+                ws[i] = ws[i] * s + ws[i + 2] * t;
+            }
+        }
+        xs[index] = ws[0];
+        ys[index] = ws[1];
+    }
+
+}
@@ -89,8 +89,32 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
 
     static final FloatMapping REVERSE = FloatMapping.Util.linear(FloatRange.UNIT_CLOSED, 1.0, 0.0);
 
+    // integrates the magnitude of the supplied derivative between a and b
+    static double integrate(Curve d, double a, double b, Tolerances tolerances) {
+        if (tolerances.isAdaptiveQuadrature()) {
+            return GaussKronrod.integrate(d, a, b,
+                    tolerances.getAbsoluteLengthTolerance(),
+                    tolerances.getRelativeLengthTolerance(),
+                    tolerances.getSplitRecursionLimit());
+        }
+        return integrate(d, a, b, tolerances.getQuadratureSteps());
+    }
+
+    // uses Legendre-Gauss quadrature with n steps
+    static double integrate(Curve d, double a, double b, int n) {
+        double z = (b - a) / 2;
+        double c = (b + a) / 2;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += cValues[n][i] * d.magnitudeAt(z * tValues[n][i] + c);
+        }
+        return z * sum;
+    }
+
     private CurvePath path = null;
     private Curve derivative = null;
+    private LengthTable lengthTable = null;
+    private Locator locator = null;
 
     @Override
     public Rect getBounds() {
@@ -102,6 +126,11 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
         return path == null ? path = createPath() : path;
     }
 
+    // retained so that repeated nearest point queries reuse it
+    Locator getLocator() {
+        return locator == null ? locator = new Locator(getPath()) : locator;
+    }
+
     @Override
     //TODO could use segment method to implement split as standard on curves?
     //note: guaranteed to split into two curve paths
@@ -149,7 +178,7 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
 
     @Override
     public double parameterNearest(Point pt) {
-        double p = new Locator(getPath()).getNearestLengthAlongPath(pt);
+        double p = getLocator().getNearestLengthAlongPath(pt);
         return lengthToIntrinsic(p);
     }
 
@@ -218,16 +247,11 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
                     path.getLength() * t;
         }
 
-        double z = t / 2;
-        double sum = 0;
-        int n = Tolerances.current().getQuadratureSteps();
         Curve d = getDerivative();
         if (d == null) return 0.0;
-        for (int i = 0; i < n; i++) {
-            t = z * tValues[n][i] + z;
-            sum += cValues[n][i] * d.magnitudeAt(t);
-        }
-        return z * sum;
+        LengthTable table = getLengthTable(d);
+        if (table != null) return table.lengthAt(t);
+        return integrate(d, 0.0, t, Tolerances.current());
     }
 
     // uses Runge Kutta to integrate
@@ -238,6 +262,8 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
         if (isLinear()) return s / length;
         Curve d = getDerivative();
         if (d == null) return 0.0;
+        LengthTable table = getLengthTable(d);
+        if (table != null) return table.intrinsicAt(s);
 
         double t = 0.0;
         int steps = Tolerances.current().getIterationSteps();
@@ -256,6 +282,20 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
         return derivative == null ? derivative = computeDerivative() : derivative;
     }
 
+    // null if length tables are disabled in the current context
+    // the table is rebuilt if the tolerances change, since they also govern the integration of its lengths
+    private LengthTable getLengthTable(Curve d) {
+        Tolerances tolerances = Tolerances.current();
+        int size = tolerances.getLengthTableSize();
+        if (size == 0) return null;
+        LengthTable table = lengthTable;
+        if (table == null || table.getTolerances() != tolerances) {
+            table = new LengthTable(d, size, tolerances);
+            lengthTable = table;
+        }
+        return table;
+    }
+
     final static class Transformed extends Curve {
 
         private final Transform transform;
@@ -323,7 +363,8 @@ public abstract class Curve implements Traceable, Parameterization.ByIntrinsic,
 
         @Override
         protected Curve computeDerivative() {
-            return new Transformed(transform, z.getDerivative());
+            // derivatives are vectors, so translations don't apply
+            return new Transformed(transform.preservingOrigin(), z.getDerivative());
         }
 
         @Override
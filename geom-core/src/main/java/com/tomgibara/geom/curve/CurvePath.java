@@ -1,12 +1,13 @@
 package com.tomgibara.geom.curve;
 
+import java.lang.ref.SoftReference;
+
 import com.tomgibara.geom.core.Context;
 import com.tomgibara.geom.core.LineSegment;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
 import com.tomgibara.geom.core.Tolerances;
 import com.tomgibara.geom.helper.Bounder;
-import com.tomgibara.geom.helper.Locator;
 import com.tomgibara.geom.path.AbstractPath;
 import com.tomgibara.geom.path.Parameterization;
 import com.tomgibara.geom.path.Path;
@@ -25,6 +26,7 @@ public class CurvePath extends AbstractPath {
     private double length = -1;
     private Rect bounds = null;
     private Boolean closed = null;
+    private SoftReference<Simplification> simplification = null;
 
     // constructors
 
@@ -87,20 +89,18 @@ public class CurvePath extends AbstractPath {
         return last;
     }
 
+    // the subdivision is retained, so repeated queries against the same path descend a tree of paths whose bounds
+    // and further subdivisions are already known; it is held softly and rebuilt if the tolerances change
     @Override
     public SimplifiedPath simplify() {
-        if (z.isLinear()) {
-            Point start = getStart();
-            Point finish = getFinish();
-            LineSegment segment = start.equals(finish) ?
-                LineSegment.fromPoint(start, z.tangentAt(0.5)) :
-                LineSegment.fromPoints(start, finish);
-            return new SimplifiedPath(segment.getPath());
+        Tolerances tolerances = Tolerances.current();
+        Simplification s = simplification == null ? null : simplification.get();
+        if (s == null || s.tolerances != tolerances) {
+            // threads that race here only duplicate work
+            s = new Simplification(tolerances, computeSimplified());
+            simplification = new SoftReference<>(s);
         }
-        SplitCurvePath curves = z.splitAt(z.getDefaultSplitParam());
-        Path p1 = curves.getFirstPath().simplifyCurve();
-        Path p2 = curves.getLastPath().simplifyCurve();
-        return new SimplifiedPath(new SplitPath(p1, p2, isClosed()));
+        return s.path;
     }
 
     @Override
@@ -184,6 +184,21 @@ public class CurvePath extends AbstractPath {
 
     // protected accessors
 
+    protected SimplifiedPath computeSimplified() {
+        if (z.isLinear()) {
+            Point start = getStart();
+            Point finish = getFinish();
+            LineSegment segment = start.equals(finish) ?
+                LineSegment.fromPoint(start, z.tangentAt(0.5)) :
+                LineSegment.fromPoints(start, finish);
+            return new SimplifiedPath(segment.getPath());
+        }
+        SplitCurvePath curves = z.splitAt(z.getDefaultSplitParam());
+        Path p1 = curves.getFirstPath().simplifyCurve();
+        Path p2 = curves.getLastPath().simplifyCurve();
+        return new SimplifiedPath(new SplitPath(p1, p2, isClosed()));
+    }
+
     protected Rect computeBounds() {
         //TODO need an algorithm that can compute bounds from derivative?
         return linearize( new Bounder() ).getBounds();
@@ -191,6 +206,18 @@ public class CurvePath extends AbstractPath {
 
     // inner classes
 
+    private static final class Simplification {
+
+        final Tolerances tolerances;
+        final SimplifiedPath path;
+
+        Simplification(Tolerances tolerances, SimplifiedPath path) {
+            this.tolerances = tolerances;
+            this.path = path;
+        }
+
+    }
+
     private static class ByLength extends Reparameterization.ByLength {
 
         private final Curve z;
@@ -212,7 +239,7 @@ public class CurvePath extends AbstractPath {
 
         @Override
         public double parameterNearest(Point pt) {
-            return new Locator(z.getPath()).getNearestLengthAlongPath(pt);
+            return z.getLocator().getNearestLengthAlongPath(pt);
         }
 
         @Override
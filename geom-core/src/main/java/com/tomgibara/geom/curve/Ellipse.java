@@ -11,8 +11,6 @@ import com.tomgibara.geom.transform.Transform;
 
 public final class Ellipse implements Geometric {
 
-    private static final Rect BASIC_BOUND = Rect.atPoints(-1.0, -1.0, 1.0, 1.0);
-
     public static Ellipse fromTransform(Transform t) {
         if (t == null) throw new IllegalArgumentException("null t");
         return new Ellipse(t);
@@ -126,18 +124,27 @@ public final class Ellipse implements Geometric {
         return bounds == null ? bounds = computeBounds() : bounds;
     }
 
+    // exact bounds of the arc between the angles, which are scaled so that one full turn is 1
     public Rect getArcBounds(double startAngleScaled, double finishAngleScaled) {
-        Rect b1 = getBounds();
-        //TODO
-//        if (Math.abs(finishAngleScaled - startAngleScaled) >= 0.5) return b1;
-//        // this is fairly efficient for small arcs
-//        Point pt1 = getPoint(startAngleScaled);
-//        Point pt2 = getPoint(finishAngleScaled);
-//        Point c = Point.Util.midpoint(pt1, pt2);
-//        double r = Norm.L2.distanceBetween(c, pt1);
-//        Rect b2 = Rect.atPoints(c.x - r, c.y - r, c.x + r, c.y + r);
-//        return Rect.intersectionRect(b1, b2);
-        return b1;
+        double from = Math.min(startAngleScaled, finishAngleScaled);
+        double to = Math.max(startAngleScaled, finishAngleScaled);
+        if (to - from >= 1.0) return getBounds();
+        Point start = getPoint(startAngleScaled);
+        Point finish = getPoint(finishAngleScaled);
+        double minX = Math.min(start.x, finish.x);
+        double minY = Math.min(start.y, finish.y);
+        double maxX = Math.max(start.x, finish.x);
+        double maxY = Math.max(start.y, finish.y);
+        // each coordinate is greatest at one angle and least half a turn later; include those the arc passes
+        double xAngle = Math.atan2(transform.m01, transform.m00) / TWO_PI;
+        double yAngle = Math.atan2(transform.m11, transform.m10) / TWO_PI;
+        double xRadius = Math.hypot(transform.m00, transform.m01);
+        double yRadius = Math.hypot(transform.m10, transform.m11);
+        if (isOnArc(from, to, xAngle      )) maxX = transform.m02 + xRadius;
+        if (isOnArc(from, to, xAngle + 0.5)) minX = transform.m02 - xRadius;
+        if (isOnArc(from, to, yAngle      )) maxY = transform.m12 + yRadius;
+        if (isOnArc(from, to, yAngle + 0.5)) minY = transform.m12 - yRadius;
+        return Rect.atPoints(minX, minY, maxX, maxY);
     }
 
     @Override
@@ -159,7 +166,15 @@ public final class Ellipse implements Geometric {
     }
 
     private Rect computeBounds() {
-        return BASIC_BOUND.apply(transform);
+        double xRadius = Math.hypot(transform.m00, transform.m01);
+        double yRadius = Math.hypot(transform.m10, transform.m11);
+        return Rect.atPoints(transform.m02 - xRadius, transform.m12 - yRadius, transform.m02 + xRadius, transform.m12 + yRadius);
+    }
+
+    // whether the scaled angle lies, modulo whole turns, between from and to
+    private static boolean isOnArc(double from, double to, double angle) {
+        double offset = angle - from;
+        return from + (offset - Math.floor(offset)) <= to;
     }
 
     private Transform getEigenBasis() {
@@ -3,8 +3,10 @@ package com.tomgibara.geom.curve;
 import static com.tomgibara.geom.core.Angles.TWO_PI;
 
 import com.tomgibara.geom.core.Angles;
+import com.tomgibara.geom.core.Norm;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
 import com.tomgibara.geom.core.Vector;
 import com.tomgibara.geom.core.Point.Consumer;
 import com.tomgibara.geom.transform.Transform;
@@ -73,16 +75,13 @@ public class EllipticalArc extends Curve {
 
     @Override
     public Vector tangentAt(double p) {
-        double ra = startAngle > finishAngle ? - Angles.PI_BY_TWO : + Angles.PI_BY_TWO;
-        double angle = angle(clamp(p)) * TWO_PI + ra;
-        Vector tangent = new Vector(angle);
-        Transform transform = geom.getTransform();
-        //TODO how to optimize?
-        Point pt1 = pointAt(p);
-        Point pt2 = tangent.translate(pt1);
-        pt1 = transform.transform(pt1);
-        pt2 = transform.transform(pt2);
-        return pt2.vectorFrom(pt1).normalized();
+        // the derivative vanishes on an empty arc, so take the direction of increasing angle
+        double rate = startAngle == finishAngle ? 1.0 : finishAngle - startAngle;
+        double angle = angle(clamp(p)) * TWO_PI;
+        double c = Math.cos(angle);
+        double s = Math.sin(angle);
+        double[] m = geom.getTransform().getComponents();
+        return new Vector(m[2] * c - m[0] * s, m[3] * c - m[1] * s).scaled(rate).normalized();
     }
 
     @Override
@@ -120,6 +119,11 @@ public class EllipticalArc extends Curve {
         return frac(startAngle) == frac(finishAngle);
     }
 
+    @Override
+    protected Curve computeDerivative() {
+        return new Derivative(this);
+    }
+
     @Override
     public String toString() {
         return "angle [" + startAngle + "," + finishAngle + "] on ellipse " + geom;
@@ -130,17 +134,93 @@ public class EllipticalArc extends Curve {
     }
 
     private <K> K linearize(Consumer<K> consumer) {
-        //TODO must have a better implementation that is sensitive to proximity to major axis
-        K k = null;
-        //TODO properly fix
-        //int steps = Math.round(geom.getBounds().getDiagonalLength() / 0.1.0);
-        int steps = 20;
+        //TODO could be sensitive to proximity to major axis
+        int steps = stepCount(Tolerances.current().getFlatness());
         double d = 1.0 / steps;
-        for (int i = 0; i <= steps; i++) {
-            double angle = (startAngle * (steps - i) + finishAngle * i) * d;
-            k = consumer.addPoint(geom.getPoint(angle));
+        // points on the unit circle are transformed in bulk
+        double[] coords = new double[(steps + 1) * 2];
+        for (int i = 0, j = 0; i <= steps; i++) {
+            double angle = (startAngle * (steps - i) + finishAngle * i) * d * TWO_PI;
+            coords[j++] = Math.cos(angle);
+            coords[j++] = Math.sin(angle);
+        }
+        geom.getTransform().transform(coords);
+        return consumer.addPoints(coords, 0, coords.length);
+    }
+
+    // the number of equal angular steps for which no chord deviates from the arc by more than the flatness
+    // each chord is the image of a chord on the unit circle, so its deviation is at most its sagitta scaled by the
+    // largest stretch of the transform; the eigenvalues of a sheared transform can be much smaller than this stretch
+    private int stepCount(double flatness) {
+        double radius = geom.getTransform().getMaximumScale();
+        double turn = Math.abs(finishAngle - startAngle) * TWO_PI;
+        double step = flatness >= radius ? Math.PI : 2.0 * Math.acos(1.0 - flatness / radius);
+        double n = Math.ceil(turn / step);
+        return n >= BezierFlattener.MAX_SEGMENTS ? BezierFlattener.MAX_SEGMENTS : Math.max((int) n, 1);
+    }
+
+    // each successive derivative turns the ellipse through a further right angle
+    private static final class Derivative extends Curve {
+
+        private final double startAngle;
+        private final double rate;
+        private final double scale;
+        // the linear part of the ellipse transform, the translation doesn't contribute
+        private final double m00;
+        private final double m10;
+        private final double m01;
+        private final double m11;
+
+        Derivative(EllipticalArc arc) {
+            double[] cs = arc.geom.getTransform().getComponents();
+            startAngle = arc.startAngle * TWO_PI + Angles.PI_BY_TWO;
+            rate = (arc.finishAngle - arc.startAngle) * TWO_PI;
+            scale = rate;
+            m00 = cs[0];
+            m10 = cs[1];
+            m01 = cs[2];
+            m11 = cs[3];
+        }
+
+        private Derivative(Derivative d) {
+            startAngle = d.startAngle + Angles.PI_BY_TWO;
+            rate = d.rate;
+            scale = d.scale * d.rate;
+            m00 = d.m00;
+            m10 = d.m10;
+            m01 = d.m01;
+            m11 = d.m11;
         }
-        return k;
+
+        @Override
+        public Point pointAt(double p) {
+            double angle = startAngle + rate * clamp(p);
+            double c = Math.cos(angle);
+            double s = Math.sin(angle);
+            return new Point(
+                    (m00 * c + m01 * s) * scale,
+                    (m10 * c + m11 * s) * scale
+                    );
+        }
+
+        @Override
+        public double magnitudeAt(double p) {
+            double angle = startAngle + rate * clamp(p);
+            double c = Math.cos(angle);
+            double s = Math.sin(angle);
+            return Norm.L2.magnitude(m00 * c + m01 * s, m10 * c + m11 * s) * Math.abs(scale);
+        }
+
+        @Override
+        protected Curve computeDerivative() {
+            return new Derivative(this);
+        }
+
+        @Override
+        public String toString() {
+            return "derivative scaled by " + scale + " from angle " + startAngle + " at rate " + rate;
+        }
+
     }
 
     private static final class EllipticalPath extends CurvePath {
@@ -0,0 +1,178 @@
+package com.tomgibara.geom.curve;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.GeomUtil;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.core.Vector;
+import com.tomgibara.geom.path.CompositePath;
+import com.tomgibara.geom.path.Parameterization;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.SimplifiedPath;
+import com.tomgibara.geom.transform.Transform;
+
+// a bezier curve path that stores its control points at single precision
+// each control coordinate is within |c| * 2^-24 of the coordinate it was narrowed from
+// since every point on a bezier curve is a convex combination of its control points, no point on the curve moves further
+// operations other than linearization, bounding and the tests of its end points are delegated to a double precision
+// copy of the curve, created on demand and only softly retained; its length and bounds are retained instead
+public final class FloatBezierPath implements Path {
+
+    public static FloatBezierPath from(BezierCurve curve) {
+        if (curve == null) throw new IllegalArgumentException("null curve");
+        return new FloatBezierPath(GeomUtil.toFloats(curve.getCoords()));
+    }
+
+    private final float[] coords;
+    private double length = -1;
+    private Rect bounds = null;
+    private SoftReference<CurvePath> path = null;
+
+    private FloatBezierPath(float[] coords) {
+        this.coords = coords;
+    }
+
+    public int getOrder() {
+        return coords.length / 2 - 1;
+    }
+
+    // a copy of the control points as consecutive x,y pairs
+    public float[] getCoords() {
+        return coords.clone();
+    }
+
+    // exact, the widened coordinates are those stored
+    public BezierCurve toBezierCurve() {
+        return (BezierCurve) toPath().getCurve();
+    }
+
+    @Override
+    public Point getStart() {
+        return new Point(coords[0], coords[1]);
+    }
+
+    @Override
+    public Point getFinish() {
+        int i = coords.length - 2;
+        return new Point(coords[i], coords[i + 1]);
+    }
+
+    @Override
+    public double getLength() {
+        return length < 0 ? length = toPath().getLength() : length;
+    }
+
+    // matches the double precision curve
+    @Override
+    public boolean isRectilinear() {
+        switch (getOrder()) {
+        case 0 : return true;
+        case 1 : return coords[0] == coords[2] || coords[1] == coords[3];
+        default: return false;
+        }
+    }
+
+    @Override
+    public boolean isSmooth() {
+        return true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        int n = coords.length - 2;
+        // the end tangents of the double precision curve, which are zero for a single point
+        Vector s = n == 0 ? Vector.ZERO : tangent(0, 2);
+        Vector f = n == 0 ? Vector.ZERO : tangent(n - 2, n);
+        Context context = Context.currentContext();
+        return context.isContinuous(getStart(), getFinish()) && !context.isCorner(s, f);
+    }
+
+    @Override
+    public Parameterization.ByIntrinsic byIntrinsic() {
+        return toPath().byIntrinsic();
+    }
+
+    @Override
+    public Parameterization.ByLength byLength() {
+        return toPath().byLength();
+    }
+
+    @Override
+    public <K> K linearize(Point.Consumer<K> consumer) {
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        int order = getOrder();
+        if (order < 2) return GeomUtil.addPoints(consumer, coords, 0, coords.length);
+        double[] ds = GeomUtil.toDoubles(coords);
+        int segments = BezierFlattener.segmentCount(ds, order, Tolerances.current().getFlatness());
+        return BezierFlattener.flatten(ds, order, segments, getStart(), getFinish(), consumer);
+    }
+
+    @Override
+    public SimplifiedPath simplify() {
+        return toPath().simplify();
+    }
+
+    @Override
+    public CompositePath splitAtCorners() {
+        return toPath().splitAtCorners();
+    }
+
+    @Override
+    public FloatBezierPath getReverse() {
+        float[] coords = this.coords.clone();
+        GeomUtil.reversePointArray(coords);
+        return new FloatBezierPath(coords);
+    }
+
+    @Override
+    public Curve getGeometry() {
+        return toPath().getGeometry();
+    }
+
+    // exact, as for the double precision curve
+    @Override
+    public Rect getBounds() {
+        return bounds == null ? bounds = BezierCurve.exactBounds(GeomUtil.toDoubles(coords)) : bounds;
+    }
+
+    // bounds of the control points
+    public Rect getHullBounds() {
+        return GeomUtil.pointBounds(coords);
+    }
+
+    // the transform is applied at double precision before narrowing again
+    @Override
+    public FloatBezierPath apply(Transform t) {
+        if (t == null) throw new IllegalArgumentException("null t");
+        if (t.isIdentity()) return this;
+        double[] ds = GeomUtil.toDoubles(coords);
+        t.transform(ds);
+        return new FloatBezierPath(GeomUtil.toFloats(ds));
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.asList(GeomUtil.asPoints(GeomUtil.toDoubles(coords))).toString();
+    }
+
+    private CurvePath toPath() {
+        CurvePath p = path == null ? null : path.get();
+        if (p == null) {
+            // threads that race here only duplicate work
+            double[] ds = GeomUtil.toDoubles(coords);
+            p = new BezierCurve(GeomUtil.asList(GeomUtil.asPoints(ds)), ds).getPath();
+            path = new SoftReference<>(p);
+        }
+        return p;
+    }
+
+    // the normalized direction between two control points, given by their offsets into the coordinates
+    private Vector tangent(int i, int j) {
+        return new Vector((double) coords[j] - coords[i], (double) coords[j + 1] - coords[i + 1]).normalized();
+    }
+
+}
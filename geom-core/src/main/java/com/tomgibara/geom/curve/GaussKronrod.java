@@ -0,0 +1,77 @@
+package com.tomgibara.geom.curve;
+
+// adaptive integration of derivative magnitudes using a 7 point Gauss / 15 point Kronrod pair
+// the difference between the two rules estimates the error, intervals are bisected until it is acceptable
+final class GaussKronrod {
+
+    // Kronrod abscissae, odd indices are shared with the Gauss rule
+    private static final double[] xgk = {
+            0.991455371120812639206854697526329,
+            0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926,
+            0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013,
+            0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245,
+            0.000000000000000000000000000000000
+    };
+
+    // Kronrod weights
+    private static final double[] wgk = {
+            0.022935322010529224963732008058970,
+            0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518,
+            0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550,
+            0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649,
+            0.209482141084727828012999174891714
+    };
+
+    // Gauss weights
+    private static final double[] wg = {
+            0.129484966168869693270611432679082,
+            0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975,
+            0.417959183673469387755102040816327
+    };
+
+    static double integrate(Curve d, double a, double b, double absolute, double relative, int depthLimit) {
+        if (a == b) return 0.0;
+        double[] result = new double[2];
+        apply(d, a, b, result);
+        double tolerance = Math.max(absolute, relative * Math.abs(result[0]));
+        if (result[1] <= tolerance) return result[0];
+        return refine(d, a, b, tolerance, depthLimit, result);
+    }
+
+    private static double refine(Curve d, double a, double b, double tolerance, int depth, double[] result) {
+        double m = (a + b) * 0.5;
+        double half = tolerance * 0.5;
+        apply(d, a, m, result);
+        double s1 = result[0];
+        if (result[1] > half && depth > 0) s1 = refine(d, a, m, half, depth - 1, result);
+        apply(d, m, b, result);
+        double s2 = result[0];
+        if (result[1] > half && depth > 0) s2 = refine(d, m, b, half, depth - 1, result);
+        return s1 + s2;
+    }
+
+    // stores the Kronrod estimate and the error estimate in result
+    private static void apply(Curve d, double a, double b, double[] result) {
+        double c = (a + b) * 0.5;
+        double h = (b - a) * 0.5;
+        double fc = d.magnitudeAt(c);
+        double resK = fc * wgk[7];
+        double resG = fc * wg[3];
+        for (int j = 0; j < 7; j++) {
+            double x = h * xgk[j];
+            double f = d.magnitudeAt(c - x) + d.magnitudeAt(c + x);
+            resK += wgk[j] * f;
+            if ((j & 1) == 1) resG += wg[j / 2] * f;
+        }
+        result[0] = resK * h;
+        result[1] = Math.abs((resK - resG) * h);
+    }
+
+}
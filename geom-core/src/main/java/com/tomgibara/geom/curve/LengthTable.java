@@ -0,0 +1,127 @@
+package com.tomgibara.geom.curve;
+
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.Tolerances;
+
+// tabulates arc length against the intrinsic parameter at evenly spaced intervals
+// conversions in either direction are made by cubic hermite interpolation using the derivative magnitude
+final class LengthTable {
+
+    private static final int MAX_NEWTON_STEPS = 8;
+    private static final double NEWTON_TOLERANCE = 1e-14;
+
+    // the tolerances under which the lengths were integrated
+    private final Tolerances tolerances;
+    private final int size;
+    private final double[] lengths; // cumulative, size + 1 entries
+    private final double[] speeds;  // d(length)/d(intrinsic) at each entry, size + 1 entries
+
+    LengthTable(Curve d, int size, Tolerances tolerances) {
+        double[] lengths = new double[size + 1];
+        double[] speeds = new double[size + 1];
+        double h = 1.0 / size;
+        double prev = 0.0;
+        speeds[0] = d.magnitudeAt(0.0);
+        for (int i = 1; i <= size; i++) {
+            double t = i == size ? 1.0 : i * h;
+            lengths[i] = lengths[i - 1] + Curve.integrate(d, prev, t, tolerances);
+            speeds[i] = d.magnitudeAt(t);
+            prev = t;
+        }
+        // limit slopes so that the interpolation remains monotonic (Fritsch-Carlson)
+        for (int i = 0; i < size; i++) {
+            double delta = (lengths[i + 1] - lengths[i]) / h;
+            if (delta == 0.0) {
+                speeds[i] = 0.0;
+                speeds[i + 1] = 0.0;
+                continue;
+            }
+            double a = speeds[i] / delta;
+            double b = speeds[i + 1] / delta;
+            double r = a * a + b * b;
+            if (r > 9.0) {
+                double s = 3.0 / Math.sqrt(r);
+                speeds[i] = s * a * delta;
+                speeds[i + 1] = s * b * delta;
+            }
+        }
+        this.tolerances = tolerances;
+        this.size = size;
+        this.lengths = lengths;
+        this.speeds = speeds;
+    }
+
+    Tolerances getTolerances() {
+        return tolerances;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    double getLength() {
+        return lengths[size];
+    }
+
+    double lengthAt(double t) {
+        if (t <= 0.0) return 0.0;
+        if (t >= 1.0) return lengths[size];
+        double f = t * size;
+        int i = Math.min((int) f, size - 1);
+        return hermite(i, f - i);
+    }
+
+    double intrinsicAt(double s) {
+        if (s <= 0.0) return 0.0;
+        if (s >= lengths[size]) return 1.0;
+        int i = Arrays.binarySearch(lengths, s);
+        if (i >= 0) {
+            // exact hit, but skip over any zero length intervals
+            while (i > 0 && lengths[i - 1] == s) i--;
+            return (double) i / size;
+        }
+        i = -2 - i; // index of entry preceding s
+        double s0 = lengths[i];
+        double s1 = lengths[i + 1];
+        // linear first guess, then refine against the interpolant using newton's method
+        double lo = 0.0;
+        double hi = 1.0;
+        double u = (s - s0) / (s1 - s0);
+        double h = 1.0 / size;
+        for (int n = 0; n < MAX_NEWTON_STEPS; n++) {
+            double e = hermite(i, u) - s;
+            if (e == 0.0) break;
+            if (e > 0.0) hi = u; else lo = u;
+            double g = hermiteSlope(i, u) * h;
+            double v = g > 0.0 ? u - e / g : Double.NaN;
+            // fall back to bisection if newton leaves the bracket
+            if (!(v > lo && v < hi)) v = (lo + hi) * 0.5;
+            double du = Math.abs(v - u);
+            u = v;
+            if (du < NEWTON_TOLERANCE) break;
+        }
+        return (i + u) * h;
+    }
+
+    private double hermite(int i, double u) {
+        double h = 1.0 / size;
+        double u2 = u * u;
+        double u3 = u2 * u;
+        return
+            (2 * u3 - 3 * u2 + 1) * lengths[i    ] +
+            (u3 - 2 * u2 + u    ) * speeds [i    ] * h +
+            (-2 * u3 + 3 * u2   ) * lengths[i + 1] +
+            (u3 - u2            ) * speeds [i + 1] * h;
+    }
+
+    // derivative with respect to the intrinsic parameter
+    private double hermiteSlope(int i, double u) {
+        double u2 = u * u;
+        return
+            (6 * u2 - 6 * u        ) * (lengths[i] - lengths[i + 1]) * size +
+            (3 * u2 - 4 * u + 1    ) * speeds[i    ] +
+            (3 * u2 - 2 * u        ) * speeds[i + 1];
+    }
+
+}
@@ -3,9 +3,11 @@ package com.tomgibara.geom.curve;
 import static com.tomgibara.geom.floats.FloatMapping.Util.compose;
 import static com.tomgibara.geom.floats.FloatMapping.Util.linear;
 
+import com.tomgibara.geom.core.LinearPath;
 import com.tomgibara.geom.core.Norm;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
 import com.tomgibara.geom.core.Vector;
 import com.tomgibara.geom.floats.FloatMapping;
 import com.tomgibara.geom.floats.FloatRange;
@@ -78,6 +80,14 @@ public final class OffsetCurve extends Curve {
         return new OffsetPath(this);
     }
 
+    @Override
+    protected Curve computeDerivative() {
+        // curvature is only available analytically from single curves and lines
+        Path path = param.getPath();
+        if (path instanceof CurvePath || path instanceof LinearPath) return new Derivative(this);
+        return super.computeDerivative();
+    }
+
     @Override
     protected boolean isClosed() {
         return param.getPath().isClosed() && isMappingPeriodic();
@@ -110,6 +120,68 @@ public final class OffsetCurve extends Curve {
         return mapping + " offset from " + param.getPath();
     }
 
+    // differentiating p(s) + d(t) n(s) with s = t * length and n' = -k p' gives
+    // length * (1 - k d) p' + d' n where k is the signed curvature of the base path
+    private static final class Derivative extends Curve {
+
+        private final OffsetCurve z;
+        // null if the path is linear
+        private final Curve curve;
+        // the slope of the mapping if it is linear
+        private final double slope;
+
+        Derivative(OffsetCurve z) {
+            this.z = z;
+            Path path = z.param.getPath();
+            curve = path instanceof CurvePath ? ((CurvePath) path).getCurve() : null;
+            FloatMapping mapping = z.mapping;
+            // mapping domain is always the unit interval
+            slope = mapping.isLinear() ? mapping.map(1.0) - mapping.map(0.0) : Double.NaN;
+        }
+
+        @Override
+        public Point pointAt(double t) {
+            t = clamp(t);
+            double s = t * z.length;
+            double tx;
+            double ty;
+            double k;
+            double u = curve == null ? 0.0 : z.param.intrinsicAt(s);
+            Point v = curve == null ? null : curve.getDerivative().pointAt(u);
+            double speed = v == null ? 0.0 : Norm.L2.magnitude(v.x, v.y);
+            if (speed == 0.0) {
+                Vector tangent = z.param.tangentAt(s);
+                tx = tangent.x;
+                ty = tangent.y;
+                k = 0.0;
+            } else {
+                Point a = curve.getDerivative().getDerivative().pointAt(u);
+                tx = v.x / speed;
+                ty = v.y / speed;
+                k = (v.x * a.y - v.y * a.x) / (speed * speed * speed);
+            }
+            double f = z.length * (1.0 - k * z.mapping.map(t));
+            double df = slopeAt(t);
+            return new Point(f * tx - df * ty, f * ty + df * tx);
+        }
+
+        @Override
+        public String toString() {
+            return "derivative of " + z;
+        }
+
+        private double slopeAt(double t) {
+            if (!Double.isNaN(slope)) return slope;
+            // only the mapping needs to be differenced
+            FloatMapping mapping = z.mapping;
+            double q = Tolerances.current().getDifferential();
+            double t1 = Math.max(t - q, 0.0);
+            double t2 = Math.min(t + q, 1.0);
+            return (mapping.map(t2) - mapping.map(t1)) / (t2 - t1);
+        }
+
+    }
+
     private static class OffsetPath extends CurvePath {
 
         OffsetPath(OffsetCurve z) {
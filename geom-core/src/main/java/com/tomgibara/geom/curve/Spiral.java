@@ -1,8 +1,7 @@
 package com.tomgibara.geom.curve;
 
+import com.tomgibara.geom.core.Norm;
 import com.tomgibara.geom.core.Point;
-import com.tomgibara.geom.core.Vector;
-import com.tomgibara.geom.transform.Transform;
 
 public class Spiral extends Curve {
 
@@ -47,7 +46,9 @@ public class Spiral extends Curve {
 
     @Override
     public Point pointAt(double p) {
-        return Transform.rotation(angle(p)).transform(new Vector(radius(p), 0.0)).translate(center);
+        double angle = angle(p);
+        double r = radius(p);
+        return new Point(center.x + r * Math.cos(angle), center.y + r * Math.sin(angle));
     }
 
     @Override
@@ -84,9 +85,52 @@ public class Spiral extends Curve {
         return new Spiral(center, finishAngle, startAngle, finishRadius, startRadius);
     }
 
+    @Override
+    protected Curve computeDerivative() {
+        return new Derivative(this);
+    }
+
     @Override
     public String toString() {
         return "Spiral center: "+ center + ", angles: [" + startAngle + "," + finishAngle + "], radii: [" + startRadius + "," + finishRadius + "]";
     }
 
+    private static final class Derivative extends Curve {
+
+        private final Spiral spiral;
+        private final double angleRate;
+        private final double radiusRate;
+
+        Derivative(Spiral spiral) {
+            this.spiral = spiral;
+            angleRate = spiral.finishAngle - spiral.startAngle;
+            // radius is fixed when the angle doesn't change
+            radiusRate = angleRate == 0.0 ? 0.0 : spiral.finishRadius - spiral.startRadius;
+        }
+
+        @Override
+        public Point pointAt(double p) {
+            double angle = spiral.angle(p);
+            double r = spiral.radius(p);
+            double c = Math.cos(angle);
+            double s = Math.sin(angle);
+            return new Point(
+                    radiusRate * c - r * angleRate * s,
+                    radiusRate * s + r * angleRate * c
+                    );
+        }
+
+        @Override
+        public double magnitudeAt(double p) {
+            // the radial and angular components are orthogonal
+            return Norm.L2.magnitude(radiusRate, spiral.radius(p) * angleRate);
+        }
+
+        @Override
+        public String toString() {
+            return "derivative of " + spiral;
+        }
+
+    }
+
 }
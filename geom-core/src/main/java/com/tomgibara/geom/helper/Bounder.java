@@ -25,6 +25,27 @@ public final class Bounder implements Point.Consumer<Bounder> {
         return this;
     }
 
+    @Override
+    public Bounder addPoints(double[] coords, int offset, int length) {
+        double minX = this.minX;
+        double minY = this.minY;
+        double maxX = this.maxX;
+        double maxY = this.maxY;
+        for (int i = offset, limit = offset + length; i < limit; i += 2) {
+            double x = coords[i    ];
+            double y = coords[i + 1];
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        return this;
+    }
+
     public Rect getBounds() {
         if (maxX < minX) throw new IllegalStateException("no points added");
         //TODO shame we can't use direct constructor
@@ -0,0 +1,116 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.Rect;
+
+// a uniform grid over a set of bounds, recording which bounds overlap each cell
+// bounds that overlap too many cells are not recorded in cells, but listed separately, since every pair of entries in a
+// cell is enumerated, and a few large bounds would otherwise make enumeration quadratic in the number of cells
+final class BoundsGrid {
+
+    private static final int[] NO_ENTRIES = {};
+    // the most cells that a single bounds is recorded in
+    private static final int MAX_ENTRY_CELLS = 16;
+
+    final Rect[] bounds;
+    final Rect extent;
+    final int columns;
+    final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+    // indices of the bounds overlapping each cell, row by row
+    private final int[][] cells;
+    private final int[] cellSizes;
+    // indices of the bounds that overlap too many cells, in increasing order
+    private final int[] oversized;
+    private final boolean[] isOversized;
+
+    // sizes the grid to have roughly as many cells as bounds
+    BoundsGrid(Rect[] bounds) {
+        this.bounds = bounds;
+        Rect extent = bounds[0];
+        for (int i = 1; i < bounds.length; i++) {
+            extent = Rect.unionRect(extent, bounds[i]);
+        }
+        this.extent = extent;
+        int side = Math.max(1, (int) Math.ceil(Math.sqrt(bounds.length)));
+        columns = extent.getWidth() == 0.0 ? 1 : side;
+        rows = extent.getHeight() == 0.0 ? 1 : side;
+        cellWidth = extent.getWidth() / columns;
+        cellHeight = extent.getHeight() / rows;
+        cells = new int[columns * rows][];
+        cellSizes = new int[columns * rows];
+        Arrays.fill(cells, NO_ENTRIES);
+        int[] oversized = new int[4];
+        int oversizedCount = 0;
+        isOversized = new boolean[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            Rect b = bounds[i];
+            int minCol = column(b.minX);
+            int maxCol = column(b.maxX);
+            int minRow = row(b.minY);
+            int maxRow = row(b.maxY);
+            if ((long) (maxCol - minCol + 1) * (maxRow - minRow + 1) > MAX_ENTRY_CELLS) {
+                if (oversizedCount == oversized.length) oversized = Arrays.copyOf(oversized, oversizedCount * 2);
+                oversized[oversizedCount++] = i;
+                isOversized[i] = true;
+                continue;
+            }
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    add(r * columns + c, i);
+                }
+            }
+        }
+        this.oversized = Arrays.copyOf(oversized, oversizedCount);
+    }
+
+    int column(double x) {
+        if (cellWidth == 0.0) return 0;
+        return Math.max(0, Math.min(columns - 1, (int) ((x - extent.minX) / cellWidth)));
+    }
+
+    int row(double y) {
+        if (cellHeight == 0.0) return 0;
+        return Math.max(0, Math.min(rows - 1, (int) ((y - extent.minY) / cellHeight)));
+    }
+
+    int cellCount() {
+        return cells.length;
+    }
+
+    // the entries of a cell occupy indices 0 (inclusive) to cellSize (exclusive)
+    int[] cellEntries(int cell) {
+        return cells[cell];
+    }
+
+    int cellSize(int cell) {
+        return cellSizes[cell];
+    }
+
+    // the bounds that are recorded in no cell, and must be compared with every other bounds
+    int[] oversized() {
+        return oversized.clone();
+    }
+
+    boolean isOversized(int i) {
+        return isOversized[i];
+    }
+
+    // the cell which owns a pair of overlapping bounds, so that each pair is considered once
+    int owningCell(int i, int j) {
+        Rect a = bounds[i];
+        Rect b = bounds[j];
+        return row(Math.max(a.minY, b.minY)) * columns + column(Math.max(a.minX, b.minX));
+    }
+
+    private void add(int cell, int index) {
+        int[] entries = cells[cell];
+        int size = cellSizes[cell];
+        if (size == entries.length) cells[cell] = entries = Arrays.copyOf(entries, Math.max(4, size * 2));
+        entries[size] = index;
+        cellSizes[cell] = size + 1;
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.tomgibara.geom.helper;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.Curve;
+import com.tomgibara.geom.curve.CurvePath;
+import com.tomgibara.geom.curve.EllipticalArc;
+import com.tomgibara.geom.curve.SplitCurvePath;
+import com.tomgibara.geom.path.CompositePath;
+import com.tomgibara.geom.path.Path;
+
+// linearizes paths within a rect, so that the work done is proportional to how much of a path is visible through it
+// every point outside the rect is moved to the nearest point on its boundary; since no point moves across the interior
+// of the rect, the winding number of each point inside it is unchanged, and filling the clipped linearization of a
+// closed path gives the same result within the rect as filling its full linearization
+// subpaths within the rect are linearized as usual, and subpaths with bounds disjoint from it are not linearized at
+// all, since they are moved onto a single edge and can be replaced by the segment between their moved end points;
+// curves that cross the boundary are subdivided while they are large compared with the rect and their bounds are
+// cheap; otherwise each segment of their linearization is clipped where it crosses the lines of the edges
+public final class ClippedLinearizer {
+
+    // the depth to which curves crossing the boundary are subdivided
+    private static final int MAX_SPLIT_DEPTH = 8;
+    // curves are only subdivided while their bounds are larger than the rect by this factor
+    private static final double SPLIT_SCALE = 2.0;
+
+    // curves with exact bounds that don't require a linearization
+    private static boolean isSplittable(Path path) {
+        if (!(path instanceof CurvePath cp)) return false;
+        Curve z = cp.getCurve();
+        return z instanceof BezierCurve || z instanceof EllipticalArc;
+    }
+
+    private final Rect rect;
+
+    public ClippedLinearizer(Rect rect) {
+        if (rect == null) throw new IllegalArgumentException("null rect");
+        this.rect = rect;
+    }
+
+    public Rect getRect() {
+        return rect;
+    }
+
+    // supplies the clipped linearization of the path under the current tolerances to the consumer
+    public <K> K linearize(Path path, Point.Consumer<K> consumer) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        // nothing to clip
+        if (rect.containsRect(path.getBounds())) return path.linearize(consumer);
+        Clipping<K> clipping = new Clipping<>(rect, consumer);
+        clip(path, clipping, 0);
+        return clipping.finish();
+    }
+
+    // the pieces of a subdivided bezier curve are new, so the bounds of their control points are used, rather than
+    // computing exact bounds that won't be retained
+    private static Rect bounds(Path path, int depth) {
+        if (depth > 0 && path instanceof CurvePath cp && cp.getCurve() instanceof BezierCurve z) return z.getHullBounds();
+        return path.getBounds();
+    }
+
+    // whether bounds are large enough that subdividing a curve is likely to cull much of its linearization
+    private boolean isLarge(Rect bounds) {
+        return bounds.getWidth() + bounds.getHeight() > SPLIT_SCALE * (rect.getWidth() + rect.getHeight());
+    }
+
+    private void clip(Path path, Clipping<?> clipping, int depth) {
+        Rect bounds = bounds(path, depth);
+        if (rect.containsRect(bounds)) {
+            path.linearize(clipping);
+        } else if (!Rect.rectsIntersect(rect, bounds)) {
+            clipping.addOutside(path.getStart(), path.getFinish());
+        } else if (path instanceof CompositePath composite) {
+            for (Path subpath : composite.getSubpaths()) {
+                clip(subpath, clipping, depth);
+            }
+        } else if (depth < MAX_SPLIT_DEPTH && isLarge(bounds) && isSplittable(path)) {
+            SplitCurvePath split = ((CurvePath) path).getCurve().splitAt(0.5);
+            clip(split.getFirstPath(), clipping, depth + 1);
+            clip(split.getLastPath(), clipping, depth + 1);
+        } else {
+            path.linearize(clipping);
+        }
+    }
+
+    // moves the points of a linearization onto the rect, adding points where its segments cross the lines of the edges
+    // repeated points are dropped, and runs of points along an edge are reduced to their first and last points
+    private static final class Clipping<K> implements Point.Consumer<Clipping<K>> {
+
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+        private final Point.Consumer<K> consumer;
+        private K last = null;
+        // crossings of a segment with the lines of the edges
+        private final double[] ts = new double[4];
+
+        // the previous point before it was moved
+        private boolean started = false;
+        private double px;
+        private double py;
+        // the last point supplied to the consumer
+        private boolean emitted = false;
+        private double ex;
+        private double ey;
+        // a point that may yet be replaced by a later point along the same edge
+        private boolean pending = false;
+        private double qx;
+        private double qy;
+
+        Clipping(Rect rect, Point.Consumer<K> consumer) {
+            minX = rect.minX;
+            minY = rect.minY;
+            maxX = rect.maxX;
+            maxY = rect.maxY;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Clipping<K> addPoint(Point pt) {
+            return addPoint(pt.x, pt.y);
+        }
+
+        @Override
+        public Clipping<K> addPoint(double x, double y) {
+            if (started) split(px, py, x, y);
+            started = true;
+            px = x;
+            py = y;
+            push(clampX(x), clampY(y));
+            return this;
+        }
+
+        // a path between the points that lies outside the rect and doesn't cross the lines of its edges
+        void addOutside(Point start, Point finish) {
+            addPoint(start);
+            px = finish.x;
+            py = finish.y;
+            push(clampX(px), clampY(py));
+        }
+
+        K finish() {
+            if (pending) emit();
+            return last;
+        }
+
+        private void split(double x0, double y0, double x1, double y1) {
+            double dx = x1 - x0;
+            double dy = y1 - y0;
+            int n = 0;
+            if (x0 < minX != x1 < minX) n = insert(n, (minX - x0) / dx);
+            if (x0 > maxX != x1 > maxX) n = insert(n, (maxX - x0) / dx);
+            if (y0 < minY != y1 < minY) n = insert(n, (minY - y0) / dy);
+            if (y0 > maxY != y1 > maxY) n = insert(n, (maxY - y0) / dy);
+            for (int i = 0; i < n; i++) {
+                double t = ts[i];
+                push(clampX(x0 + t * dx), clampY(y0 + t * dy));
+            }
+        }
+
+        // keeps the crossings in increasing order
+        private int insert(int n, double t) {
+            int i = n;
+            for (; i > 0 && ts[i - 1] > t; i--) {
+                ts[i] = ts[i - 1];
+            }
+            ts[i] = t;
+            return n + 1;
+        }
+
+        private void push(double x, double y) {
+            if (pending) {
+                if (x == qx && y == qy) return;
+                if (emitted && alongEdge(x, y)) {
+                    qx = x;
+                    qy = y;
+                    return;
+                }
+                emit();
+            }
+            pending = true;
+            qx = x;
+            qy = y;
+        }
+
+        // whether the last emitted point, the pending point and the given point all lie on the line of one edge
+        private boolean alongEdge(double x, double y) {
+            if (ex == qx && qx == x && (x == minX || x == maxX)) return true;
+            if (ey == qy && qy == y && (y == minY || y == maxY)) return true;
+            return false;
+        }
+
+        private void emit() {
+            pending = false;
+            // a run along an edge may return to where it began
+            if (emitted && qx == ex && qy == ey) return;
+            emitted = true;
+            ex = qx;
+            ey = qy;
+            last = consumer.addPoint(qx, qy);
+        }
+
+        private double clampX(double x) {
+            return x < minX ? minX : x > maxX ? maxX : x;
+        }
+
+        private double clampY(double y) {
+            return y < minY ? minY : y > maxY ? maxY : y;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.tomgibara.geom.helper;
+
+import com.tomgibara.geom.core.Point;
+
+// where two segments of a linearized path cross
+// segment i joins points i and i + 1 of the linearization and parameters run from 0 to 1 along it
+public final class Crossing {
+
+    private final Point point;
+    private final int firstSegment;
+    private final double firstParameter;
+    private final int secondSegment;
+    private final double secondParameter;
+
+    Crossing(Point point, int firstSegment, double firstParameter, int secondSegment, double secondParameter) {
+        this.point = point;
+        this.firstSegment = firstSegment;
+        this.firstParameter = firstParameter;
+        this.secondSegment = secondSegment;
+        this.secondParameter = secondParameter;
+    }
+
+    public Point getPoint() {
+        return point;
+    }
+
+    // the index of the earlier segment
+    public int getFirstSegment() {
+        return firstSegment;
+    }
+
+    public double getFirstParameter() {
+        return firstParameter;
+    }
+
+    // the index of the later segment
+    public int getSecondSegment() {
+        return secondSegment;
+    }
+
+    public double getSecondParameter() {
+        return secondParameter;
+    }
+
+    @Override
+    public int hashCode() {
+        return point.hashCode() + 31 * (firstSegment + 31 * secondSegment) + Double.hashCode(firstParameter) + Double.hashCode(secondParameter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof Crossing)) return false;
+        Crossing that = (Crossing) obj;
+        if (this.firstSegment != that.firstSegment) return false;
+        if (this.secondSegment != that.secondSegment) return false;
+        if (this.firstParameter != that.firstParameter) return false;
+        if (this.secondParameter != that.secondParameter) return false;
+        if (!this.point.equals(that.point)) return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "crossing at " + point + " of " + firstSegment + " at " + firstParameter + " and " + secondSegment + " at " + secondParameter;
+    }
+
+}
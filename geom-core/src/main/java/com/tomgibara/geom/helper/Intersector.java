@@ -1,9 +1,16 @@
 package com.tomgibara.geom.helper;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.tomgibara.geom.core.GeomUtil;
 import com.tomgibara.geom.core.LineSegment;
 import com.tomgibara.geom.core.LinearPath;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Vector;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.CurvePath;
 import com.tomgibara.geom.path.Path;
 import com.tomgibara.geom.path.SimplifiedPath;
 import com.tomgibara.geom.path.SplitPath;
@@ -18,6 +25,9 @@ public class Intersector {
     private int boundsChecks = 0;
     private int rectChecks = 0;
     private int lineChecks = 0;
+    // intersections found by sweeping, awaiting ordering
+    private double[] hits = new double[64];
+    private int hitCount = 0;
 
     public Intersector(Point.Consumer<?> consumer) {
         this(consumer, false, false);
@@ -46,6 +56,20 @@ public class Intersector {
         doIntersect(p1, p2);
     }
 
+    // finds intersections between the linearizations of two paths in order of first path
+    // candidate segment pairs are found by sweeping across x, so the cost grows with
+    // (n + m) log(n + m) plus the number of candidates, rather than with n * m
+    public void intersectBySweep(Path p1, Path p2) {
+        if (p1 == null) throw new IllegalArgumentException("null p1");
+        if (p2 == null) throw new IllegalArgumentException("null p2");
+        boundsChecks++;
+        if (!Rect.rectsIntersect(p1.getBounds(), p2.getBounds())) return;
+        Segments s1 = Segments.of(p1);
+        Segments s2 = Segments.of(p2);
+        sweep(s1, s2);
+        report(s1);
+    }
+
     public int getBoundsChecks() {
         return boundsChecks;
     }
@@ -60,9 +84,25 @@ public class Intersector {
 
     private void doIntersect(Path p1, Path p2) {
         boundsChecks++;
-        Rect b1 = p1.getBounds();
-        Rect b2 = p2.getBounds();
-        if (!Rect.rectsIntersect(b1, b2)) return;
+        BezierCurve z2 = bezier(p2);
+        BezierCurve z1 = z2 == null ? null : bezier(p1);
+        // pairs of curves are clipped directly, so their control points are bound cheaply in place of the curves
+        if (z1 != null && !Rect.rectsIntersect(z1.getHullBounds(), z2.getHullBounds())) return;
+        if (z1 == null && !Rect.rectsIntersect(p1.getBounds(), p2.getBounds())) return;
+
+        if (z2 != null) {
+            if (z1 != null && doIntersect(z1, z2)) return;
+            // splitting only the first path preserves the order of intersections
+            SimplifiedPath s1 = p1.simplify();
+            if (s1.isLinear()) {
+                doIntersect(s1.getLinear(), p2);
+            } else {
+                SplitPath j1 = s1.getSplit();
+                doIntersect(j1.getFirstPath(), p2);
+                doIntersect(j1.getLastPath(), p2);
+            }
+            return;
+        }
 
         SimplifiedPath s1 = p1.simplify();
         SimplifiedPath s2 = p2.simplify();
@@ -88,6 +128,12 @@ public class Intersector {
         rectChecks++;
         if (!d1.getSegment().intersectsRect(p2.getBounds())) return;
 
+        BezierCurve z2 = bezier(p2);
+        if (z2 != null) {
+            doIntersect(d1, z2);
+            return;
+        }
+
         SimplifiedPath s2 = p2.simplify();
         if (s2.isLinear()) {
             doIntersect(d1, s2.getLinear());
@@ -105,6 +151,12 @@ public class Intersector {
         rectChecks++;
         if (!d2.getSegment().intersectsRect(p1.getBounds())) return;
 
+        BezierCurve z1 = bezier(p1);
+        if (z1 != null) {
+            doIntersect(z1, d2);
+            return;
+        }
+
         SimplifiedPath s1 = p1.simplify();
         if (s1.isLinear()) {
             doIntersect(s1.getLinear(), d2);
@@ -129,5 +181,160 @@ public class Intersector {
         lastPoint = pt;
     }
 
+    // intersections with bezier curves are found exactly, rather than by subdivision, unless
+    // vertices are reported, since a curve has no vertices to report
+
+    private BezierCurve bezier(Path path) {
+        if (reportingPreviousVertex || reportingNextVertex) return null;
+        if (!(path instanceof CurvePath cp) || !(cp.getCurve() instanceof BezierCurve z)) return null;
+        return z.getOrder() < 2 ? null : z;
+    }
+
+    // returns false if the intersections could not be isolated
+    private boolean doIntersect(BezierCurve z1, BezierCurve z2) {
+        double[] ts = z1.intersectionParameters(z2);
+        if (ts == null) return false;
+        lineChecks++;
+        for (int i = 0; i < ts.length; i += 2) {
+            report(z1.pointAt(ts[i]));
+        }
+        return true;
+    }
+
+    private void doIntersect(BezierCurve z1, LinearPath d2) {
+        lineChecks++;
+        for (double t : z1.intersectionParameters(d2.getSegment())) {
+            report(z1.pointAt(t));
+        }
+    }
+
+    private void doIntersect(LinearPath d1, BezierCurve z2) {
+        lineChecks++;
+        double[] ts = z2.intersectionParameters(d1.getSegment());
+        if (ts.length == 0) return;
+        Point start = d1.getStart();
+        Vector tangent = d1.getTangent();
+        Point[] pts = new Point[ts.length];
+        for (int i = 0; i < ts.length; i++) {
+            pts[i] = z2.pointAt(ts[i]);
+        }
+        // order along the line
+        Arrays.sort(pts, Comparator.comparingDouble(pt -> tangent.dot(pt.vectorFrom(start))));
+        for (Point pt : pts) {
+            report(pt);
+        }
+    }
+
+    private void report(Point pt) {
+        if (lastPoint != null && lastPoint.equals(pt)) return;
+        consumer.addPoint(pt);
+        lastPoint = pt;
+    }
+
+    // records hits as consecutive (segment of s1, parameter, x, y) quadruples
+    private void sweep(Segments s1, Segments s2) {
+        hitCount = 0;
+        int[] active1 = new int[16];
+        int[] active2 = new int[16];
+        int activeCount1 = 0;
+        int activeCount2 = 0;
+        int i1 = 0;
+        int i2 = 0;
+        while (i1 < s1.count && i2 < s2.count) {
+            int a = s1.order[i1];
+            int b = s2.order[i2];
+            if (s1.minX(a) <= s2.minX(b)) {
+                // retire segments of s2 which end before a starts while testing the rest
+                double minX = s1.minX(a);
+                int kept = 0;
+                for (int k = 0; k < activeCount2; k++) {
+                    int c = active2[k];
+                    if (s2.maxX(c) < minX) continue;
+                    active2[kept++] = c;
+                    test(s1, a, s2, c);
+                }
+                activeCount2 = kept;
+                if (activeCount1 == active1.length) active1 = Arrays.copyOf(active1, activeCount1 * 2);
+                active1[activeCount1++] = a;
+                i1++;
+            } else {
+                double minX = s2.minX(b);
+                int kept = 0;
+                for (int k = 0; k < activeCount1; k++) {
+                    int c = active1[k];
+                    if (s1.maxX(c) < minX) continue;
+                    active1[kept++] = c;
+                    test(s1, c, s2, b);
+                }
+                activeCount1 = kept;
+                if (activeCount2 == active2.length) active2 = Arrays.copyOf(active2, activeCount2 * 2);
+                active2[activeCount2++] = b;
+                i2++;
+            }
+        }
+        // once either side is exhausted, remaining segments can only meet active ones, which are still retired
+        for (; i1 < s1.count && activeCount2 > 0; i1++) {
+            int a = s1.order[i1];
+            double minX = s1.minX(a);
+            int kept = 0;
+            for (int k = 0; k < activeCount2; k++) {
+                int c = active2[k];
+                if (s2.maxX(c) < minX) continue;
+                active2[kept++] = c;
+                test(s1, a, s2, c);
+            }
+            activeCount2 = kept;
+        }
+        for (; i2 < s2.count && activeCount1 > 0; i2++) {
+            int b = s2.order[i2];
+            double minX = s2.minX(b);
+            int kept = 0;
+            for (int k = 0; k < activeCount1; k++) {
+                int c = active1[k];
+                if (s1.maxX(c) < minX) continue;
+                active1[kept++] = c;
+                test(s1, c, s2, b);
+            }
+            activeCount1 = kept;
+        }
+    }
+
+    // records any intersection of segment a of s1 with segment b of s2
+    private void test(Segments s1, int a, Segments s2, int b) {
+        rectChecks++;
+        if (s1.maxX(a) < s2.minX(b) || s2.maxX(b) < s1.minX(a) || !s1.overlapsY(a, s2, b)) return;
+        lineChecks++;
+        double s = Segments.intersection(s1.coords, a, s2.coords, b);
+        if (Double.isNaN(s)) return;
+        if (hitCount == hits.length) hits = Arrays.copyOf(hits, hitCount * 2);
+        int i = a * 2;
+        double[] coords = s1.coords;
+        hits[hitCount++] = a;
+        hits[hitCount++] = s;
+        hits[hitCount++] = coords[i    ] + s * (coords[i + 2] - coords[i    ]);
+        hits[hitCount++] = coords[i + 1] + s * (coords[i + 3] - coords[i + 1]);
+    }
+
+    private void report(Segments s1) {
+        int count = hitCount / 4;
+        double[] hits = this.hits;
+        // hits are ordered by segment and then by parameter along it
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = hits[i * 4] + hits[i * 4 + 1];
+        }
+        double[] coords = s1.coords;
+        for (int k : GeomUtil.sortedIndices(keys, count)) {
+            int h = k * 4;
+            Point pt = new Point(hits[h + 2], hits[h + 3]);
+            if (lastPoint != null && lastPoint.equals(pt)) continue;
+            int i = 2 * (int) hits[h];
+            if (isReportingPreviousVertex()) consumer.addPoint(coords[i], coords[i + 1]);
+            consumer.addPoint(pt);
+            if (isReportingNextVertex()) consumer.addPoint(coords[i + 2], coords[i + 3]);
+            lastPoint = pt;
+        }
+    }
+
 
 }
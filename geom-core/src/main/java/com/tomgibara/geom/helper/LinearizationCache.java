@@ -0,0 +1,187 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.path.Path;
+
+// retains the linearizations of paths, as packed coordinates, so that they can be replayed without recomputation
+// entries are keyed by the identity of the path together with the tolerances that shape its linearization, so a
+// path linearized under different tolerances has an entry for each; the least recently used entries are evicted
+// to keep the estimated size of the cache within its budget
+// paths are referenced strongly until evicted; a cache may be shared by many threads
+public final class LinearizationCache {
+
+    // an estimate of the memory occupied by an entry in addition to its coordinates
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final long budget;
+    private final LinkedHashMap<Key, double[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0L;
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    // the budget is the greatest number of bytes the entries are estimated to occupy
+    public LinearizationCache(long budget) {
+        if (budget < 0L) throw new IllegalArgumentException("negative budget");
+        this.budget = budget;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    // supplies the linearization of the path under the current tolerances to the consumer, as path.linearize would
+    public <K> K linearize(Path path, Point.Consumer<K> consumer) {
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        double[] coords = coords(path);
+        return consumer.addPoints(coords, 0, coords.length);
+    }
+
+    // the linearization of the path under the current tolerances as consecutive x,y pairs
+    public double[] getCoords(Path path) {
+        return coords(path).clone();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // the estimated number of bytes occupied by the entries
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0L;
+    }
+
+    private double[] coords(Path path) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        Key key = new Key(path, Tolerances.current());
+        synchronized (this) {
+            double[] coords = entries.get(key);
+            if (coords != null) {
+                hits++;
+                return coords;
+            }
+            misses++;
+        }
+        // linearized outside the lock, so that other threads are not held up; racing threads duplicate work
+        Packer packer = new Packer();
+        path.linearize(packer);
+        double[] coords = packer.coords();
+        // an entry larger than the budget is never retained
+        if (size(coords) <= budget) store(key, coords);
+        return coords;
+    }
+
+    private synchronized void store(Key key, double[] coords) {
+        double[] previous = entries.put(key, coords);
+        if (previous != null) bytes -= size(previous);
+        bytes += size(coords);
+        // iteration is from the least recently used
+        for (Iterator<double[]> i = entries.values().iterator(); bytes > budget; ) {
+            bytes -= size(i.next());
+            i.remove();
+            evictions++;
+        }
+    }
+
+    private static long size(double[] coords) {
+        return coords.length * 8L + ENTRY_OVERHEAD;
+    }
+
+    private static final class Key {
+
+        private final Path path;
+        private final double shortestNonLinearCurve;
+        private final double leastNonLinearDeviation;
+        private final double flatness;
+        private final int splitRecursionLimit;
+
+        Key(Path path, Tolerances tolerances) {
+            this.path = path;
+            shortestNonLinearCurve = tolerances.getShortestNonLinearCurve();
+            leastNonLinearDeviation = tolerances.getLeastNonLinearDeviation();
+            flatness = tolerances.getFlatness();
+            splitRecursionLimit = tolerances.getSplitRecursionLimit();
+        }
+
+        @Override
+        public int hashCode() {
+            int h = System.identityHashCode(path);
+            h = h * 31 + Double.hashCode(shortestNonLinearCurve);
+            h = h * 31 + Double.hashCode(leastNonLinearDeviation);
+            h = h * 31 + Double.hashCode(flatness);
+            return h * 31 + splitRecursionLimit;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Key)) return false;
+            Key that = (Key) obj;
+            if (this.path != that.path) return false;
+            if (this.shortestNonLinearCurve != that.shortestNonLinearCurve) return false;
+            if (this.leastNonLinearDeviation != that.leastNonLinearDeviation) return false;
+            if (this.flatness != that.flatness) return false;
+            if (this.splitRecursionLimit != that.splitRecursionLimit) return false;
+            return true;
+        }
+
+    }
+
+    // accumulates coordinates into an array
+    private static final class Packer implements Point.Consumer<Packer> {
+
+        private double[] coords = new double[32];
+        private int length = 0;
+
+        @Override
+        public Packer addPoint(Point pt) {
+            return addPoint(pt.x, pt.y);
+        }
+
+        @Override
+        public Packer addPoint(double x, double y) {
+            if (length == coords.length) coords = Arrays.copyOf(coords, length * 2);
+            coords[length++] = x;
+            coords[length++] = y;
+            return this;
+        }
+
+        @Override
+        public Packer addPoints(double[] coords, int offset, int length) {
+            if (this.length + length > this.coords.length) {
+                this.coords = Arrays.copyOf(this.coords, Math.max(this.coords.length * 2, this.length + length));
+            }
+            System.arraycopy(coords, offset, this.coords, this.length, length);
+            this.length += length;
+            return this;
+        }
+
+        double[] coords() {
+            return Arrays.copyOf(coords, length);
+        }
+
+    }
+
+}
@@ -1,14 +1,21 @@
 package com.tomgibara.geom.helper;
 
+import java.util.Arrays;
+
 import com.tomgibara.geom.core.LinearPath;
 import com.tomgibara.geom.core.Norm;
 import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
 import com.tomgibara.geom.path.Path;
 import com.tomgibara.geom.path.SimplifiedPath;
 import com.tomgibara.geom.path.SplitPath;
 
+// locators are immutable and may be shared between threads and reused across queries
+// each thread searches with its own workspace, so repeated queries do not allocate bookkeeping
 public class Locator {
 
+    private static final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
     private final Path path;
     private final Norm norm = Norm.L2;
 
@@ -17,89 +24,149 @@ public class Locator {
         this.path = path;
     }
 
+    public Path getPath() {
+        return path;
+    }
+
     public double getNearestLengthAlongPath(Point pt) {
         if (pt == null) throw new IllegalArgumentException("null pt");
-        Stack stack = evaluate(pt, new Stack(path));
-        if (stack == null) throw new IllegalStateException();
-        double d = stack.parameter;
-        stack = stack.stack;
-        while (stack != null) {
-            double length = stack.path.getLength();
-            d += length;
-            stack = stack.stack;
+        Workspace workspace = workspaces.get();
+        // a query made while another is underway on this thread gets a workspace of its own
+        if (workspace.busy) workspace = new Workspace();
+        workspace.busy = true;
+        try {
+            return workspace.search(path, norm, pt);
+        } finally {
+            workspace.clear();
+            workspace.busy = false;
         }
-        return d;
     }
-    // stack needs to represent all ancestors, in order
-    // return the best thing you can find or null if you can't beat the supplied stack
-    private Stack evaluate(Point pt, Stack stack) {
-        SimplifiedPath simplified = stack.path.simplify();
-        if (simplified.isLinear()) {
-            LinearPath linear = simplified.getLinear();
-            Point nearest = linear.nearestPointTo(pt);
-            double dist = norm.distanceBetween(nearest, pt);
-            if (dist <= stack.distance) return stack.replaceMatch(linear, dist, norm.distanceBetween(nearest, linear.getStart()));
-            return null;
-        } else {
-            SplitPath split = simplified.getSplit();
-            Path first = split.getFirstPath();
-            Path second = split.getLastPath();
-            double firstDistLB = norm.distanceBetween(pt, first.getBounds().nearestPointTo(pt, false));
-            double secondDistLB = norm.distanceBetween(pt, second.getBounds().nearestPointTo(pt, false));
-            boolean firstPossible = firstDistLB <= stack.distance;
-            boolean secondPossible = secondDistLB <= stack.distance;
-            if (!firstPossible && !secondPossible) return null;
-            double firstDistUB = norm.distanceBetween(pt, first.getBounds().furthestPointTo(pt));
-            if (firstPossible && !secondPossible) {
-                return evaluate(pt, stack.replacePossible(first, firstDistUB));
-            }
-            double secondDistUB = norm.distanceBetween(pt, second.getBounds().furthestPointTo(pt));
-            if (!firstPossible) {
-                stack = stack.replacePossible(first, firstDistUB);
-                return evaluate(pt, stack.addPossible(second, secondDistUB));
+
+    // a best-first search over the subdivisions of the path, ordered by a lower bound on their distance from the point
+    // nodes are held in arrays: each records its path, its parent and, for a second half, the first half that precedes it
+    private static final class Workspace {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        boolean busy = false;
+
+        private Path[] paths = new Path[INITIAL_CAPACITY];
+        private Path[] preceding = new Path[INITIAL_CAPACITY];
+        private int[] parents = new int[INITIAL_CAPACITY];
+        private double[] lowerBounds = new double[INITIAL_CAPACITY];
+        private int size = 0;
+
+        // a binary min-heap of node indices keyed by lower bound
+        private int[] heap = new int[INITIAL_CAPACITY];
+        private int heapSize = 0;
+
+        double search(Path path, Norm norm, Point pt) {
+            // the least upper bound on the distance to the nearest point
+            double bound = Double.POSITIVE_INFINITY;
+            int best = -1;
+            double bestDist = Double.POSITIVE_INFINITY;
+            double bestFraction = 0.0;
+            push(add(path, -1, null, 0.0));
+            while (heapSize > 0) {
+                int node = pop();
+                if (lowerBounds[node] > bound) break;
+                SimplifiedPath simplified = paths[node].simplify();
+                if (simplified.isLinear()) {
+                    LinearPath linear = simplified.getLinear();
+                    Point nearest = linear.nearestPointTo(pt);
+                    double dist = norm.distanceBetween(nearest, pt);
+                    double length = linear.getLength();
+                    double fraction = length == 0.0 ? 0.0 : norm.distanceBetween(nearest, linear.getStart()) / length;
+                    // where nodes join, prefer the start of the later, since its offset is a sum of exact lengths
+                    if (best == -1 || dist < bestDist || dist == bestDist && fraction < bestFraction) {
+                        bound = Math.min(bound, dist);
+                        best = node;
+                        bestDist = dist;
+                        bestFraction = fraction;
+                    }
+                } else {
+                    SplitPath split = simplified.getSplit();
+                    Path first = split.getFirstPath();
+                    Path second = split.getLastPath();
+                    bound = consider(norm, pt, first, node, null, bound);
+                    bound = consider(norm, pt, second, node, first, bound);
+                }
             }
-            stack = stack.replacePossible(first, firstDistUB);
-            Stack s1 = evaluate(pt, stack);
-            if (s1 == null) {
-                return evaluate(pt, stack.addPossible(second, secondDistUB));
+            if (best == -1) throw new IllegalStateException();
+            // measured along the node itself rather than its linearization, so that adjacent nodes agree at their join
+            double d = bestFraction * paths[best].getLength();
+            // the preceding halves of the nearest node and its ancestors lie before it along the path
+            for (int node = best; node != -1; node = parents[node]) {
+                if (preceding[node] != null) d += preceding[node].getLength();
             }
-            if (secondDistLB > s1.distance) return s1;
-            Stack s2 = evaluate(pt, stack.addPossible(second, Math.min(s1.distance, secondDistUB)));
-            return s2 == null ? s1 : s2;
+            return d;
         }
-    }
-
-    private static final class Stack {
 
-        final Stack stack;
-        final Path path;
-        final double distance;
-        final double parameter; // -1 if distance is just an upper bound
-
-        Stack(Path path) {
-            this.path = path;
-            stack = null;
-            distance = Double.POSITIVE_INFINITY;
-            parameter = -1.0;
+        void clear() {
+            // release paths for collection, but retain the arrays
+            Arrays.fill(paths, 0, size, null);
+            Arrays.fill(preceding, 0, size, null);
+            size = 0;
+            heapSize = 0;
         }
 
-        private Stack(Stack stack, Path path, double distance, double parameter) {
-            this.stack = stack;
-            this.path = path;
-            this.distance = distance;
-            this.parameter = parameter;
+        // adds the path as a node if it may contain the nearest point, returning the tightened bound
+        private double consider(Norm norm, Point pt, Path path, int parent, Path before, double bound) {
+            Rect bounds = path.getBounds();
+            double lower = norm.magnitude(
+                    Math.max(Math.max(bounds.minX - pt.x, pt.x - bounds.maxX), 0.0),
+                    Math.max(Math.max(bounds.minY - pt.y, pt.y - bounds.maxY), 0.0));
+            if (lower > bound) return bound;
+            push(add(path, parent, before, lower));
+            double upper = norm.magnitude(
+                    Math.max(pt.x - bounds.minX, bounds.maxX - pt.x),
+                    Math.max(pt.y - bounds.minY, bounds.maxY - pt.y));
+            return Math.min(bound, upper);
         }
 
-        Stack addPossible(Path path, double distance) {
-            return new Stack(this, path, Math.min(distance, this.distance), -1.0);
+        private int add(Path path, int parent, Path before, double lower) {
+            if (size == paths.length) {
+                int capacity = size * 2;
+                paths = Arrays.copyOf(paths, capacity);
+                preceding = Arrays.copyOf(preceding, capacity);
+                parents = Arrays.copyOf(parents, capacity);
+                lowerBounds = Arrays.copyOf(lowerBounds, capacity);
+            }
+            paths[size] = path;
+            preceding[size] = before;
+            parents[size] = parent;
+            lowerBounds[size] = lower;
+            return size++;
         }
 
-        Stack replacePossible(Path path, double distance) {
-            return new Stack(stack, path,  Math.min(distance, this.distance), -1.0);
+        private void push(int node) {
+            if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+            double key = lowerBounds[node];
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (lowerBounds[heap[parent]] <= key) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = node;
         }
 
-        Stack replaceMatch(Path path, double distance, double parameter) {
-            return new Stack(stack, path,  distance, parameter);
+        private int pop() {
+            int top = heap[0];
+            int node = heap[--heapSize];
+            double key = lowerBounds[node];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && lowerBounds[heap[child + 1]] < lowerBounds[heap[child]]) child++;
+                if (lowerBounds[heap[child]] >= key) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = node;
+            return top;
         }
 
     }
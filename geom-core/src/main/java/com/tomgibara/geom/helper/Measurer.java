@@ -7,7 +7,9 @@ public class Measurer implements Point.Consumer<Measurer> {
 
     private final Norm norm;
     private double length = 0.0;
-    private Point last = null;
+    private boolean started = false;
+    private double lastX;
+    private double lastY;
 
     public Measurer(Norm norm) {
         if (norm == null) throw new IllegalArgumentException("null norm");
@@ -24,14 +26,45 @@ public class Measurer implements Point.Consumer<Measurer> {
 
     @Override
     public Measurer addPoint(double x, double y) {
-        return addPoint(new Point(x, y));
+        if (started) {
+            length += norm.magnitude(x - lastX, y - lastY);
+        } else {
+            started = true;
+        }
+        lastX = x;
+        lastY = y;
+        return this;
     }
 
     @Override
     public Measurer addPoint(Point pt) {
         if (pt == null) throw new IllegalArgumentException("null pt");
-        if (last != null) length += norm.distanceBetween(last, pt);
-        last = pt;
+        return addPoint(pt.x, pt.y);
+    }
+
+    @Override
+    public Measurer addPoints(double[] coords, int offset, int length) {
+        if (coords == null) throw new IllegalArgumentException("null coords");
+        if (length == 0) return this;
+        int i = offset;
+        if (!started) {
+            started = true;
+            lastX = coords[i++];
+            lastY = coords[i++];
+        }
+        double x = lastX;
+        double y = lastY;
+        double sum = 0.0;
+        for (int limit = offset + length; i < limit; i += 2) {
+            double nx = coords[i    ];
+            double ny = coords[i + 1];
+            sum += norm.magnitude(nx - x, ny - y);
+            x = nx;
+            y = ny;
+        }
+        this.length += sum;
+        lastX = x;
+        lastY = y;
         return this;
     }
 
@@ -0,0 +1,122 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.path.Path;
+
+// finds the intersections between every pair of paths in a collection
+public class MultiIntersector {
+
+    public interface Consumer {
+
+        // firstPath is less than secondPath, both are indices into the intersected paths
+        void addIntersection(int firstPath, int secondPath, Point pt);
+
+    }
+
+    private final Consumer consumer;
+    private final boolean parallel;
+    private int candidatePairs = 0;
+
+    public MultiIntersector(Consumer consumer) {
+        this(consumer, true);
+    }
+
+    public MultiIntersector(Consumer consumer, boolean parallel) {
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        this.consumer = consumer;
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    // path bounds are indexed in a uniform grid and only pairs with intersecting bounds are
+    // passed to an Intersector; intersections are reported on the calling thread, ordered by
+    // path indices and then by position along the first path
+    public void intersect(List<? extends Path> paths) {
+        if (paths == null) throw new IllegalArgumentException("null paths");
+        int count = paths.size();
+        if (count < 2) return;
+        Path[] array = paths.toArray(new Path[count]);
+        Rect[] bounds = new Rect[count];
+        for (int i = 0; i < count; i++) {
+            Path path = array[i];
+            if (path == null) throw new IllegalArgumentException("null path");
+            bounds[i] = path.getBounds();
+        }
+
+        long[] pairs = candidatePairs(new BoundsGrid(bounds));
+        candidatePairs += pairs.length;
+
+        // worker threads must see the tolerances of the calling thread
+        Context context = Context.currentContext();
+        IntStream indices = IntStream.range(0, pairs.length);
+        if (parallel) indices = indices.parallel();
+        Point.List[] results = indices.mapToObj(k -> intersect(context, array, pairs[k])).toArray(Point.List[]::new);
+
+        for (int k = 0; k < pairs.length; k++) {
+            int i = (int) (pairs[k] >>> 32);
+            int j = (int) pairs[k];
+            for (Point pt : results[k]) {
+                consumer.addIntersection(i, j, pt);
+            }
+        }
+    }
+
+    public int getCandidatePairs() {
+        return candidatePairs;
+    }
+
+    // pairs packed as first index in the high bits and second in the low bits, in increasing order
+    private static long[] candidatePairs(BoundsGrid grid) {
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            int[] entries = grid.cellEntries(cell);
+            int size = grid.cellSize(cell);
+            for (int a = 0; a < size; a++) {
+                for (int b = a + 1; b < size; b++) {
+                    int i = Math.min(entries[a], entries[b]);
+                    int j = Math.max(entries[a], entries[b]);
+                    if (!Rect.rectsIntersect(grid.bounds[i], grid.bounds[j])) continue;
+                    if (grid.owningCell(i, j) != cell) continue;
+                    if (pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairCount * 2);
+                    pairs[pairCount++] = (long) i << 32 | j;
+                }
+            }
+        }
+        // bounds that are too large for the grid are compared with every other bounds once, and with each other once
+        Rect[] bounds = grid.bounds;
+        for (int o : grid.oversized()) {
+            for (int k = 0; k < bounds.length; k++) {
+                if (k == o || k < o && grid.isOversized(k)) continue;
+                if (!Rect.rectsIntersect(bounds[o], bounds[k])) continue;
+                if (pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairCount * 2);
+                pairs[pairCount++] = o < k ? (long) o << 32 | k : (long) k << 32 | o;
+            }
+        }
+        pairs = Arrays.copyOf(pairs, pairCount);
+        Arrays.sort(pairs);
+        return pairs;
+    }
+
+    private static Point.List intersect(Context context, Path[] paths, long pair) {
+        Point.List list = new Point.List();
+        boolean entering = Context.currentContext() != context;
+        if (entering) Context.enter(context.tolerances, context.policy);
+        try {
+            new Intersector(list).intersect(paths[(int) (pair >>> 32)], paths[(int) pair]);
+        } finally {
+            if (entering) Context.exit();
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.tomgibara.geom.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.tomgibara.geom.core.GeomUtil;
+import com.tomgibara.geom.core.Norm;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.path.Path;
+
+// finds the paths nearest to a point among many
+// path bounds are bulk loaded into an R-tree by sort-tile-recursive packing and queries search it best-first,
+// refining a path with its Locator only when its bounds are nearer than every other candidate
+// an index is immutable and may be queried by many threads concurrently
+public final class PathIndex {
+
+    private static final int NODE_CAPACITY = 16;
+
+    private final Norm norm = Norm.L2;
+    private final List<Path> paths;
+    private final Locator[] locators;
+    private final double[] pathBounds; // minX, minY, maxX, maxY for each path
+
+    // node i has children children[first[i]] to children[first[i + 1] - 1]
+    // nodes below leafCount are leaves and their children are path indices, otherwise they are node indices
+    private final double[] bounds; // minX, minY, maxX, maxY for each node
+    private final int[] first;
+    private final int[] children;
+    private final int leafCount;
+    private final int root; // -1 if there are no paths
+
+    public PathIndex(List<? extends Path> paths) {
+        if (paths == null) throw new IllegalArgumentException("null paths");
+        int count = paths.size();
+        Path[] array = paths.toArray(new Path[count]);
+        Locator[] locators = new Locator[count];
+        double[] rects = new double[count * 4];
+        for (int i = 0; i < count; i++) {
+            Path path = array[i];
+            if (path == null) throw new IllegalArgumentException("null path");
+            locators[i] = new Locator(path);
+            Rect rect = path.getBounds();
+            rects[4 * i    ] = rect.minX;
+            rects[4 * i + 1] = rect.minY;
+            rects[4 * i + 2] = rect.maxX;
+            rects[4 * i + 3] = rect.maxY;
+        }
+        this.paths = Collections.unmodifiableList(Arrays.asList(array));
+        this.locators = locators;
+        pathBounds = rects;
+
+        Builder builder = new Builder(count);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+        ids = builder.pack(ids, rects);
+        leafCount = builder.nodeCount;
+        while (ids.length > 1) {
+            ids = builder.pack(ids, builder.bounds);
+        }
+        bounds = Arrays.copyOf(builder.bounds, builder.nodeCount * 4);
+        first = Arrays.copyOf(builder.first, builder.nodeCount + 1);
+        children = Arrays.copyOf(builder.children, builder.childCount);
+        root = builder.nodeCount - 1;
+    }
+
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    // the nearest path to the point, or null if the index is empty
+    public Proximity nearest(Point pt) {
+        List<Proximity> list = search(pt, 1, Double.POSITIVE_INFINITY);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    // the k nearest paths to the point in order of increasing distance
+    public List<Proximity> nearest(Point pt, int k) {
+        if (k < 0) throw new IllegalArgumentException("negative k");
+        return search(pt, k, Double.POSITIVE_INFINITY);
+    }
+
+    // the paths within the given distance of the point in order of increasing distance
+    public List<Proximity> within(Point pt, double radius) {
+        if (radius < 0.0) throw new IllegalArgumentException("negative radius");
+        return search(pt, Integer.MAX_VALUE, radius);
+    }
+
+    private List<Proximity> search(Point pt, int k, double radius) {
+        if (pt == null) throw new IllegalArgumentException("null pt");
+        List<Proximity> results = new ArrayList<>();
+        if (root == -1 || k == 0) return results;
+        // entries are visited in order of their distance; for nodes and unrefined paths this is a lower bound
+        PriorityQueue<Entry> queue = new PriorityQueue<>();
+        queue.add(new Entry(lowerBound(bounds, root, pt), root, -1, null));
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            if (entry.distance > radius) break;
+            if (entry.proximity != null) {
+                results.add(entry.proximity);
+                if (results.size() == k) break;
+            } else if (entry.path != -1) {
+                queue.add(refine(entry.path, pt));
+            } else {
+                int node = entry.node;
+                boolean leaf = node < leafCount;
+                for (int i = first[node]; i < first[node + 1]; i++) {
+                    int child = children[i];
+                    if (leaf) {
+                        double lower = lowerBound(pathBounds, child, pt);
+                        if (lower <= radius) queue.add(new Entry(lower, -1, child, null));
+                    } else {
+                        double lower = lowerBound(bounds, child, pt);
+                        if (lower <= radius) queue.add(new Entry(lower, child, -1, null));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private Entry refine(int index, Point pt) {
+        Path path = paths.get(index);
+        double length = locators[index].getNearestLengthAlongPath(pt);
+        Point nearest = path.byLength().pointAt(length);
+        double distance = norm.distanceBetween(pt, nearest);
+        return new Entry(distance, -1, index, new Proximity(index, path, length, nearest, distance));
+    }
+
+    private double lowerBound(double[] bounds, int index, Point pt) {
+        int i = index * 4;
+        return norm.magnitude(
+                Math.max(Math.max(bounds[i    ] - pt.x, pt.x - bounds[i + 2]), 0.0),
+                Math.max(Math.max(bounds[i + 1] - pt.y, pt.y - bounds[i + 3]), 0.0));
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        final double distance;
+        final int node;
+        final int path;
+        final Proximity proximity;
+
+        Entry(double distance, int node, int path, Proximity proximity) {
+            this.distance = distance;
+            this.node = node;
+            this.path = path;
+            this.proximity = proximity;
+        }
+
+        // refined entries come before unrefined entries at the same distance, then lower path indices first
+        @Override
+        public int compareTo(Entry that) {
+            int c = Double.compare(this.distance, that.distance);
+            if (c != 0) return c;
+            if ((this.proximity == null) != (that.proximity == null)) return this.proximity == null ? 1 : -1;
+            return Integer.compare(this.path, that.path);
+        }
+
+    }
+
+    // accumulates the nodes of the tree, one level at a time from the leaves up
+    private static final class Builder {
+
+        double[] bounds;
+        int[] first;
+        int[] children;
+        int nodeCount = 0;
+        int childCount = 0;
+
+        Builder(int count) {
+            // roughly the number of nodes in a tree of full nodes; the arrays grow if required
+            int capacity = count / NODE_CAPACITY * 2 + 1;
+            bounds = new double[capacity * 4];
+            first = new int[capacity + 1];
+            children = new int[count + capacity];
+        }
+
+        // groups the entries, which have their bounds in rects, into nodes, returning the indices of the new nodes
+        int[] pack(int[] ids, double[] rects) {
+            int count = ids.length;
+            int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            int slices = (int) Math.ceil(Math.sqrt(nodes));
+            int sliceSize = slices * NODE_CAPACITY;
+            // sort by the centres of the rectangles, in x across the whole level then in y within each slice
+            double[] keys = new double[count];
+            for (int i = 0; i < count; i++) {
+                int id = ids[i];
+                keys[i] = rects[4 * id] + rects[4 * id + 2];
+            }
+            int[] order = new int[count];
+            int[] byX = GeomUtil.sortedIndices(keys, count);
+            for (int from = 0; from < count; from += sliceSize) {
+                int to = Math.min(from + sliceSize, count);
+                for (int i = from; i < to; i++) {
+                    int id = ids[byX[i]];
+                    keys[i - from] = rects[4 * id + 1] + rects[4 * id + 3];
+                }
+                int[] byY = GeomUtil.sortedIndices(keys, to - from);
+                for (int i = from; i < to; i++) {
+                    order[i] = ids[byX[from + byY[i - from]]];
+                }
+            }
+            int[] created = new int[nodes];
+            for (int n = 0; n < nodes; n++) {
+                int node = nodeCount++;
+                created[n] = node;
+                ensureCapacity(node);
+                first[node] = childCount;
+                double minX = Double.POSITIVE_INFINITY;
+                double minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                int to = Math.min((n + 1) * NODE_CAPACITY, count);
+                for (int i = n * NODE_CAPACITY; i < to; i++) {
+                    int id = order[i];
+                    if (childCount == children.length) children = Arrays.copyOf(children, childCount * 2);
+                    children[childCount++] = id;
+                    minX = Math.min(minX, rects[4 * id    ]);
+                    minY = Math.min(minY, rects[4 * id + 1]);
+                    maxX = Math.max(maxX, rects[4 * id + 2]);
+                    maxY = Math.max(maxY, rects[4 * id + 3]);
+                }
+                first[node + 1] = childCount;
+                bounds[4 * node    ] = minX;
+                bounds[4 * node + 1] = minY;
+                bounds[4 * node + 2] = maxX;
+                bounds[4 * node + 3] = maxY;
+            }
+            return created;
+        }
+
+        private void ensureCapacity(int node) {
+            if (node + 1 < first.length) return;
+            int capacity = (node + 1) * 2;
+            first = Arrays.copyOf(first, capacity + 1);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+        }
+
+    }
+
+}
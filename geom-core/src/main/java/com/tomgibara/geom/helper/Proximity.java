@@ -0,0 +1,68 @@
+package com.tomgibara.geom.helper;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.Path;
+
+// the nearest location on one of the paths of a PathIndex to a queried point
+public final class Proximity {
+
+    private final int index;
+    private final Path path;
+    private final double length;
+    private final Point point;
+    private final double distance;
+
+    Proximity(int index, Path path, double length, Point point, double distance) {
+        this.index = index;
+        this.path = path;
+        this.length = length;
+        this.point = point;
+        this.distance = distance;
+    }
+
+    // the index of the path in the list from which the PathIndex was built
+    public int getIndex() {
+        return index;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // the length along the path of its nearest point
+    public double getLengthAlongPath() {
+        return length;
+    }
+
+    public Point getPoint() {
+        return point;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    @Override
+    public int hashCode() {
+        return index + 31 * point.hashCode() + Double.hashCode(length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof Proximity)) return false;
+        Proximity that = (Proximity) obj;
+        if (this.index != that.index) return false;
+        if (this.length != that.length) return false;
+        if (this.distance != that.distance) return false;
+        if (!this.point.equals(that.point)) return false;
+        if (!this.path.equals(that.path)) return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "path " + index + " at " + length + " " + point + " distance " + distance;
+    }
+
+}
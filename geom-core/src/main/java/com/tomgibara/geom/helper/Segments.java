@@ -0,0 +1,87 @@
+package com.tomgibara.geom.helper;
+
+import com.tomgibara.geom.core.GeomUtil;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+// the line segments of a linearized path, with an ordering by minimum x
+final class Segments {
+
+    private static final double[] NO_COORDS = {};
+    private static final int[] NO_ORDER = {};
+
+    static Segments of(Path path) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        path.linearize(builder);
+        if (builder.pointCount() < 2) return new Segments(NO_COORDS, 0, NO_ORDER);
+        double[] coords = builder.build().getCoords();
+        int count = coords.length / 2 - 1;
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = minX(coords, i);
+        }
+        return new Segments(coords, count, GeomUtil.sortedIndices(keys, count));
+    }
+
+    // the parameter along segment i of a at which it meets segment j of b, or NaN
+    // matches the computation in LineSegment.intersectionWith
+    static double intersection(double[] a, int i, double[] b, int j) {
+        i *= 2;
+        j *= 2;
+        double ax = a[i    ];
+        double ay = a[i + 1];
+        double bx = b[j    ];
+        double by = b[j + 1];
+        double dax = a[i + 2] - ax;
+        double day = a[i + 3] - ay;
+        double dbx = b[j + 2] - bx;
+        double dby = b[j + 3] - by;
+        double d = day * dbx - dax * dby;
+        if (d == 0.0) return Double.NaN;
+        double ex = bx - ax;
+        double ey = by - ay;
+        double s = ey * dbx - ex * dby;
+        if (d > 0 && (s < 0 || s > d)) return Double.NaN;
+        if (d < 0 && (s > 0 || s < d)) return Double.NaN;
+        double t = ey * dax - ex * day;
+        if (d > 0 && (t < 0 || t > d)) return Double.NaN;
+        if (d < 0 && (t > 0 || t < d)) return Double.NaN;
+        // avoid returning negative zero
+        return s == 0.0 ? 0.0 : s / d;
+    }
+
+    private static double minX(double[] coords, int i) {
+        return Math.min(coords[2 * i], coords[2 * i + 2]);
+    }
+
+    final double[] coords; // segment i runs from point i to point i + 1
+    final int count;
+    final int[] order; // segment indices in order of increasing minimum x
+
+    private Segments(double[] coords, int count, int[] order) {
+        this.coords = coords;
+        this.count = count;
+        this.order = order;
+    }
+
+    double minX(int i) {
+        return minX(coords, i);
+    }
+
+    double maxX(int i) {
+        return Math.max(coords[2 * i], coords[2 * i + 2]);
+    }
+
+    double minY(int i) {
+        return Math.min(coords[2 * i + 1], coords[2 * i + 3]);
+    }
+
+    double maxY(int i) {
+        return Math.max(coords[2 * i + 1], coords[2 * i + 3]);
+    }
+
+    boolean overlapsY(int i, Segments that, int j) {
+        return this.minY(i) <= that.maxY(j) && that.minY(j) <= this.maxY(i);
+    }
+
+}
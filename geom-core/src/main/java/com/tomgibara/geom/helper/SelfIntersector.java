@@ -0,0 +1,121 @@
+package com.tomgibara.geom.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.Path;
+
+// finds where the linearization of a path crosses itself by sweeping across x, with the active segments held in bands of y
+public class SelfIntersector {
+
+    private static final Comparator<Crossing> ORDER =
+            Comparator.comparingDouble((Crossing c) -> c.getFirstSegment() + c.getFirstParameter())
+            .thenComparingDouble(c -> c.getSecondSegment() + c.getSecondParameter());
+
+    // limits the memory used by the bands of active segments
+    private static final int MAX_BANDS = 1024;
+
+    private int rectChecks = 0;
+    private int lineChecks = 0;
+
+    // crossings in order of the earlier segment; segments which share a vertex
+    // are not reported as crossing there
+    public List<Crossing> findCrossings(Path path) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        Segments segments = Segments.of(path);
+        int count = segments.count;
+        double[] coords = segments.coords;
+        // the first and last segments of a closed linearization are adjacent
+        boolean closed = count > 2 && coords[0] == coords[coords.length - 2] && coords[1] == coords[coords.length - 1];
+
+        // the active segments are also divided into bands of y, so that segments which span x but not y are not tested
+        // against each other; a segment is held in every band it meets, and a pair of segments is tested only in the
+        // band containing the lower end of the overlap of their y ranges, so that no pair is tested twice
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double heights = 0.0;
+        for (int i = 0; i < count; i++) {
+            minY = Math.min(minY, segments.minY(i));
+            maxY = Math.max(maxY, segments.maxY(i));
+            heights += segments.maxY(i) - segments.minY(i);
+        }
+        // bands are no shallower than twice the average segment, so that most segments lie in one or two bands
+        double bandHeight = Math.max((maxY - minY) / Math.sqrt(count), 2.0 * heights / count);
+        int bands = bandHeight > 0.0 ? (int) Math.min(Math.ceil((maxY - minY) / bandHeight), MAX_BANDS) : 1;
+        if (bands <= 1) {
+            bands = 1;
+            bandHeight = Double.POSITIVE_INFINITY;
+        }
+
+        List<Crossing> crossings = new ArrayList<>();
+        int[][] active = new int[bands][16];
+        int[] activeCounts = new int[bands];
+        for (int k = 0; k < count; k++) {
+            int a = segments.order[k];
+            double minX = segments.minX(a);
+            double aMinY = segments.minY(a);
+            int lo = band(aMinY, minY, bandHeight, bands);
+            int hi = band(segments.maxY(a), minY, bandHeight, bands);
+            for (int band = lo; band <= hi; band++) {
+                int[] list = active[band];
+                int kept = 0;
+                for (int j = 0, activeCount = activeCounts[band]; j < activeCount; j++) {
+                    int b = list[j];
+                    if (segments.maxX(b) < minX) continue;
+                    list[kept++] = b;
+                    if (band > lo && band(segments.minY(b), minY, bandHeight, bands) < band) continue;
+                    rectChecks++;
+                    if (!segments.overlapsY(a, segments, b)) continue;
+                    int i1 = Math.min(a, b);
+                    int i2 = Math.max(a, b);
+                    if (adjacent(i1, i2, count, closed)) continue;
+                    lineChecks++;
+                    double t1 = Segments.intersection(coords, i1, coords, i2);
+                    if (Double.isNaN(t1)) continue;
+                    double t2 = Segments.intersection(coords, i2, coords, i1);
+                    if (Double.isNaN(t2)) continue;
+                    // a crossing at a shared vertex is recorded once, from the segment starting there
+                    if (t1 == 1.0 && hasSuccessor(i1, count, closed) && !adjacent(successor(i1, count), i2, count, closed)) continue;
+                    if (t2 == 1.0 && hasSuccessor(i2, count, closed) && !adjacent(i1, successor(i2, count), count, closed)) continue;
+                    int i = i1 * 2;
+                    Point pt = new Point(coords[i] + t1 * (coords[i + 2] - coords[i]), coords[i + 1] + t1 * (coords[i + 3] - coords[i + 1]));
+                    crossings.add(new Crossing(pt, i1, t1, i2, t2));
+                }
+                if (kept == list.length) active[band] = list = Arrays.copyOf(list, kept * 2);
+                list[kept++] = a;
+                activeCounts[band] = kept;
+            }
+        }
+        crossings.sort(ORDER);
+        return crossings;
+    }
+
+    public int getRectChecks() {
+        return rectChecks;
+    }
+
+    public int getLineChecks() {
+        return lineChecks;
+    }
+
+    private static int band(double y, double minY, double bandHeight, int bands) {
+        return Math.min((int) ((y - minY) / bandHeight), bands - 1);
+    }
+
+    private static boolean adjacent(int i1, int i2, int count, boolean closed) {
+        if (i1 > i2) return adjacent(i2, i1, count, closed);
+        return i1 == i2 || i2 == i1 + 1 || closed && i1 == 0 && i2 == count - 1;
+    }
+
+    private static boolean hasSuccessor(int i, int count, boolean closed) {
+        return closed || i < count - 1;
+    }
+
+    private static int successor(int i, int count) {
+        return i == count - 1 ? 0 : i + 1;
+    }
+
+}
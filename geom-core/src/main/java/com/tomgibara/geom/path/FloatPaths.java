@@ -0,0 +1,46 @@
+package com.tomgibara.geom.path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.CurvePath;
+import com.tomgibara.geom.curve.FloatBezierPath;
+
+// conversions between double and single precision paths
+// narrowing moves each stored coordinate by at most |c| * 2^-24, and so each point of a polygonal or bezier path by at most
+// max(|x|,|y|) * 2^-24 in each axis; sequences are narrowed by narrowing their subpaths, whose shared end points stay coincident
+// paths of other types are retained at double precision, widening is exact
+public final class FloatPaths {
+
+    public static Path narrow(Path path) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        if (path instanceof PolygonalPath polygonal) return FloatPolygonalPath.from(polygonal);
+        if (path instanceof CurvePath curvePath && curvePath.getCurve() instanceof BezierCurve curve) return FloatBezierPath.from(curve);
+        if (path instanceof SequencePath sequence) {
+            List<Path> paths = new ArrayList<>(sequence.getSubpathCount());
+            for (Path subpath : sequence.getSubpaths()) {
+                paths.add(narrow(subpath));
+            }
+            return new SequencePath(sequence.isClosed(), paths);
+        }
+        return path;
+    }
+
+    public static Path widen(Path path) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        if (path instanceof FloatPolygonalPath polygonal) return polygonal.toPolygonalPath();
+        if (path instanceof FloatBezierPath bezier) return bezier.toBezierCurve().getPath();
+        if (path instanceof SequencePath sequence) {
+            List<Path> paths = new ArrayList<>(sequence.getSubpathCount());
+            for (Path subpath : sequence.getSubpaths()) {
+                paths.add(widen(subpath));
+            }
+            return new SequencePath(sequence.isClosed(), paths);
+        }
+        return path;
+    }
+
+    private FloatPaths() { }
+
+}
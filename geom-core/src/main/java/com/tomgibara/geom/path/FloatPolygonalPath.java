@@ -0,0 +1,175 @@
+package com.tomgibara.geom.path;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.GeomUtil;
+import com.tomgibara.geom.core.Norm;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Traceable;
+import com.tomgibara.geom.transform.Transform;
+
+// a polygonal path that stores its points at single precision, halving the memory used by PolygonalPath
+// each coordinate is within |c| * 2^-24 of the coordinate it was narrowed from (so within 2^-12 for |c| < 4096)
+// consecutive points that become equal when narrowed are merged
+// operations other than linearization, measurement and bounding are delegated to a double precision copy, created on
+// demand and only softly retained, so that the memory saved is not lost to the copy
+public final class FloatPolygonalPath implements Path {
+
+    public static FloatPolygonalPath from(PolygonalPath path) {
+        if (path == null) throw new IllegalArgumentException("null path");
+        return narrow(path.getCoords(), path.isClosed());
+    }
+
+    private static FloatPolygonalPath narrow(double[] ds, boolean closed) {
+        float[] fs = new float[ds.length];
+        int length = 0;
+        boolean rectilinear = true;
+        for (int i = 0; i < ds.length; i += 2) {
+            float x = (float) ds[i    ];
+            float y = (float) ds[i + 1];
+            if (length > 0) {
+                float lastX = fs[length - 2];
+                float lastY = fs[length - 1];
+                if (x == lastX && y == lastY) continue;
+                if (x != lastX && y != lastY) rectilinear = false;
+            }
+            fs[length++] = x;
+            fs[length++] = y;
+        }
+        if (length < 4) throw new IllegalArgumentException("path collapses to a point at single precision");
+        return new FloatPolygonalPath(length == fs.length ? fs : Arrays.copyOf(fs, length), closed, rectilinear);
+    }
+
+    private final float[] coords; // points as consecutive x,y pairs, at least two points
+    private final boolean closed;
+    private final boolean rectilinear;
+    private double length = -1;
+    private SoftReference<PolygonalPath> path = null;
+
+    private FloatPolygonalPath(float[] coords, boolean closed, boolean rectilinear) {
+        this.coords = coords;
+        this.closed = closed;
+        this.rectilinear = rectilinear;
+    }
+
+    public int getPointCount() {
+        return coords.length / 2;
+    }
+
+    // a copy of the points as consecutive x,y pairs
+    public float[] getCoords() {
+        return coords.clone();
+    }
+
+    // exact, the widened coordinates are those stored
+    public PolygonalPath toPolygonalPath() {
+        PolygonalPath p = path == null ? null : path.get();
+        if (p == null) {
+            // threads that race here only duplicate work
+            p = new PolygonalPath(GeomUtil.toDoubles(coords), closed, rectilinear);
+            path = new SoftReference<>(p);
+        }
+        return p;
+    }
+
+    @Override
+    public Point getStart() {
+        return new Point(coords[0], coords[1]);
+    }
+
+    @Override
+    public Point getFinish() {
+        int i = coords.length - 2;
+        return new Point(coords[i], coords[i + 1]);
+    }
+
+    @Override
+    public double getLength() {
+        return length < 0 ? length = computeLength() : length;
+    }
+
+    @Override
+    public boolean isRectilinear() {
+        return rectilinear;
+    }
+
+    @Override
+    public boolean isSmooth() {
+        return toPolygonalPath().isSmooth();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public Parameterization.ByIntrinsic byIntrinsic() {
+        return toPolygonalPath().byIntrinsic();
+    }
+
+    @Override
+    public Parameterization.ByLength byLength() {
+        return toPolygonalPath().byLength();
+    }
+
+    @Override
+    public <K> K linearize(Point.Consumer<K> consumer) {
+        return GeomUtil.addPoints(consumer, coords, 0, coords.length);
+    }
+
+    @Override
+    public SimplifiedPath simplify() {
+        return toPolygonalPath().simplify();
+    }
+
+    @Override
+    public CompositePath splitAtCorners() {
+        return toPolygonalPath().splitAtCorners();
+    }
+
+    @Override
+    public FloatPolygonalPath getReverse() {
+        float[] coords = this.coords.clone();
+        GeomUtil.reversePointArray(coords);
+        return new FloatPolygonalPath(coords, closed, rectilinear);
+    }
+
+    @Override
+    public Traceable getGeometry() {
+        return toPolygonalPath().getGeometry();
+    }
+
+    @Override
+    public Rect getBounds() {
+        return GeomUtil.pointBounds(coords);
+    }
+
+    // the transform is applied at double precision before narrowing again
+    @Override
+    public FloatPolygonalPath apply(Transform t) {
+        if (t == null) throw new IllegalArgumentException("null t");
+        if (t.isIdentity()) return this;
+        double[] ds = GeomUtil.toDoubles(coords);
+        t.transform(ds);
+        return narrow(ds, closed);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.asList(GeomUtil.asPoints(GeomUtil.toDoubles(coords))).toString();
+    }
+
+    private double computeLength() {
+        double length = 0.0;
+        for (int i = 2; i < coords.length; i += 2) {
+            double dx = (double) coords[i    ] - coords[i - 2];
+            double dy = (double) coords[i + 1] - coords[i - 1];
+            length += Norm.L2.magnitude(dx, dy);
+        }
+        return length;
+    }
+
+}
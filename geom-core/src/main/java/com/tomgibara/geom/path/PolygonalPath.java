@@ -3,6 +3,7 @@ package com.tomgibara.geom.path;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -13,14 +14,17 @@ import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
 import com.tomgibara.geom.core.Vector;
 import com.tomgibara.geom.helper.Bounder;
+import com.tomgibara.geom.helper.Locator;
+import com.tomgibara.geom.helper.Measurer;
 import com.tomgibara.geom.transform.Transform;
 
 public class PolygonalPath implements Path {
 
     public static class Builder implements Point.Consumer<Builder> {
 
-        private List<Point> points = new ArrayList<>();
-        private Point last = null;
+        // points stored as consecutive x,y pairs
+        private double[] coords = new double[16];
+        private int count = 0;
         private boolean closed = false;
         private boolean rectilinear = true;
 
@@ -28,13 +32,26 @@ public class PolygonalPath implements Path {
 
         @Override
         public Builder addPoint(double x, double y) {
-            return addPoint(new Point(x, y));
+            addPointImpl(x, y);
+            return this;
         }
 
         @Override
         public Builder addPoint(Point pt) {
             if (pt == null) throw new IllegalArgumentException("null pt");
-            addPointImpl(pt);
+            addPointImpl(pt.x, pt.y);
+            return this;
+        }
+
+        @Override
+        public Builder addPoints(double[] coords, int offset, int length) {
+            if (coords == null) throw new IllegalArgumentException("null coords");
+            if (length < 0) throw new IllegalArgumentException("negative length");
+            if ((length & 1) != 0) throw new IllegalArgumentException("odd length");
+            ensureCapacity(count + length / 2);
+            for (int i = offset, limit = offset + length; i < limit; i += 2) {
+                addPointImpl(coords[i], coords[i + 1]);
+            }
             return this;
         }
 
@@ -59,22 +76,19 @@ public class PolygonalPath implements Path {
         }
 
         public int pointCount() {
-            return points.size();
+            return count;
         }
 
         public PolygonalPath closeAndBuild() {
             checkNotTrivial();
-            Point first = points.get(0);
-            if (!first.equals(last)) {
-                addPointImpl(first);
-            }
+            addPointImpl(coords[0], coords[1]);
             closed = true;
             return build();
         }
 
         public PolygonalPath build() {
             checkNotTrivial();
-            return new PolygonalPath( points.toArray(new Point[points.size()]), closed, rectilinear );
+            return new PolygonalPath( Arrays.copyOf(coords, count * 2), closed, rectilinear );
         }
 
 //        public Path buildPossiblePointPath() {
@@ -85,20 +99,30 @@ public class PolygonalPath implements Path {
 //            }
 //        }
 
-        private void addPointImpl(Point pt) {
-            if (last != null && last.equals(pt)) {
-                return;
+        private void addPointImpl(double x, double y) {
+            int i = count * 2;
+            if (count > 0) {
+                double lastX = coords[i - 2];
+                double lastY = coords[i - 1];
+                if (lastX == x && lastY == y) return;
+                if (rectilinear && lastX != x && lastY != y) {
+                    rectilinear = false;
+                }
             }
+            ensureCapacity(count + 1);
+            coords[i    ] = x;
+            coords[i + 1] = y;
+            count++;
+        }
 
-            points.add(pt);
-            if (rectilinear && last != null && last.x != pt.x && last.y != pt.y) {
-                    rectilinear = false;
+        private void ensureCapacity(int required) {
+            if (required * 2 > coords.length) {
+                coords = Arrays.copyOf(coords, Math.max(required * 2, coords.length * 2));
             }
-            last = pt;
         }
 
         private void checkNotTrivial() {
-            if (points.size() < 2) throw new IllegalStateException("fewer than two points");
+            if (count < 2) throw new IllegalStateException("fewer than two points");
         }
 
     }
@@ -107,25 +131,37 @@ public class PolygonalPath implements Path {
         return new Builder();
     }
 
-    private final Point[] points; // at least length 2
+    private final double[] coords; // points as consecutive x,y pairs, at least two points
+    private final int count;
     private final boolean closed;
     private final boolean rectilinear;
-    private final List<Point> publicPoints;
+    private List<Point> publicPoints = null;
     private Rect bounds = null;
     private List<LineSegment> segments = null;
     private double length = -1;
-    private Parameterizations params = null;
+    private double[] lengths = null;
+    private ByIntrinsic byIntrinsic = null;
+    private ByLength byLength = null;
     private CompositePath cornerSplit = null;
 
-    private PolygonalPath(Point[] points, boolean closed, boolean rectilinear) {
-        this.points = points;
+    PolygonalPath(double[] coords, boolean closed, boolean rectilinear) {
+        this.coords = coords;
         this.closed = closed;
         this.rectilinear = rectilinear;
-        publicPoints = GeomUtil.asList(points);
+        count = coords.length / 2;
     }
 
     public List<Point> getPoints() {
-        return publicPoints;
+        return publicPoints == null ? publicPoints = new PointList() : publicPoints;
+    }
+
+    public int getPointCount() {
+        return count;
+    }
+
+    // a copy of the points as consecutive x,y pairs
+    public double[] getCoords() {
+        return coords.clone();
     }
 
     public List<LineSegment> getSegments() {
@@ -134,12 +170,12 @@ public class PolygonalPath implements Path {
 
     @Override
     public Point getStart() {
-        return points[0];
+        return pointAt(0);
     }
 
     @Override
     public Point getFinish() {
-        return points[points.length - 1];
+        return pointAt(count - 1);
     }
 
     @Override
@@ -160,67 +196,56 @@ public class PolygonalPath implements Path {
     @Override
     public boolean isSmooth() {
         // easy case, straight line
-        if (points.length == 2) return true;
+        if (count == 2) return true;
         // cannot be closed without a corner
         if (isClosed()) return false;
         Vector t = null;
         Context context = Context.currentContext();
-        for (LineSegment segment : getSegments()) {
-            if (t == null) {
-                t = segment.getTangent();
-            } else {
-                Vector s = segment.getTangent();
-                if (context.isCorner(s, t)) return false;
-                t = s;
-            }
+        for (int i = 2; i < coords.length; i += 2) {
+            Vector s = new Vector(coords[i] - coords[i - 2], coords[i + 1] - coords[i - 1]).normalized();
+            if (t != null && context.isCorner(s, t)) return false;
+            t = s;
         }
         return true;
     }
 
     @Override
     public <C> C linearize(Point.Consumer<C> consumer) {
-        C c = null;
-        for (Point point : points) {
-            c = consumer.addPoint(point);
-        }
-        return c;
+        return consumer.addPoints(coords, 0, coords.length);
     }
 
     @Override
     public SimplifiedPath simplify() {
-    //case 2 : return new SimplifiedPath( getSegments().get(0) );
-        int length = points.length;
-        if (length == 2) return new SimplifiedPath( getSegments().get(0).getPath() );
+        if (count == 2) return new SimplifiedPath( getSegments().get(0).getPath() );
 
-        int i = length / 2;
+        int i = count / 2;
         //TODO can we supply precomputed segments?
-        Path p1 = i == 1 ? getSegments().get(0).getPath() : new PolygonalPath(Arrays.copyOfRange(points, 0, i + 1), false, rectilinear);
-        Path p2 = length - i == 2 ? getSegments().get(i).getPath() : new PolygonalPath(Arrays.copyOfRange(points, i, length), false, rectilinear);
+        Path p1 = i == 1 ? getSegments().get(0).getPath() : new PolygonalPath(Arrays.copyOfRange(coords, 0, i * 2 + 2), false, rectilinear);
+        Path p2 = count - i == 2 ? getSegments().get(i).getPath() : new PolygonalPath(Arrays.copyOfRange(coords, i * 2, coords.length), false, rectilinear);
         return new SimplifiedPath(new SplitPath(p1, p2, closed));
     }
 
     @Override
     public Parameterization.ByIntrinsic byIntrinsic() {
-        return getParams().getByIntrinsic();
+        return byIntrinsic == null ? byIntrinsic = new ByIntrinsic() : byIntrinsic;
     }
 
     @Override
     public Parameterization.ByLength byLength() {
-        return getParams().getByLength();
+        return byLength == null ? byLength = new ByLength() : byLength;
     }
 
     @Override
     public PolygonalPath getReverse() {
-        Point[] pts = points.clone();
-        GeomUtil.reverseArray(pts);
-        return new PolygonalPath(pts, closed, rectilinear);
+        double[] coords = this.coords.clone();
+        GeomUtil.reversePointArray(coords);
+        return new PolygonalPath(coords, closed, rectilinear);
     }
-
     @Override
     public CompositePath splitAtCorners() {
         if (cornerSplit == null) {
             // easy case, straight line
-            if (points.length == 2) {
+            if (count == 2) {
                 cornerSplit = new SingletonPath(this);
             } else {
                 Context context = Context.currentContext();
@@ -257,9 +282,9 @@ public class PolygonalPath implements Path {
     public PolygonalPath apply(Transform t) {
         if (t == null) throw new IllegalArgumentException("null t");
         if (t.isIdentity()) return this;
-        Point[] points = this.points.clone();
-        t.transform(points);
-        return new PolygonalPath(points, closed, rectilinear && t.isRectilinearPreserving());
+        double[] coords = this.coords.clone();
+        t.transform(coords);
+        return new PolygonalPath(coords, closed, rectilinear && t.isRectilinearPreserving());
     }
 
     @Override
@@ -269,35 +294,47 @@ public class PolygonalPath implements Path {
 
     @Override
     public String toString() {
-        return publicPoints.toString();
+        return getPoints().toString();
+    }
+
+    private Point pointAt(int index) {
+        return new Point(coords[index * 2], coords[index * 2 + 1]);
     }
 
     private Rect computeBounds() {
-        Bounder consumer = new Bounder();
-        linearize(consumer);
-        return consumer.getBounds();
+        return new Bounder().addPoints(coords, 0, coords.length).getBounds();
     }
 
     private double computeLength() {
-        double length = 0.0;
-        List<LineSegment> segments = getSegments();
-        int size = segments.size();
-        for (LineSegment segment : segments) {
-            length += segment.getPath().getLength();
+        return new Measurer().addPoints(coords, 0, coords.length).getLength();
+    }
+
+    private class PointList extends AbstractList<Point> {
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= count) throw new IndexOutOfBoundsException("no point at index " + index);
+            return pointAt(index);
         }
-        return length;
+
+        @Override
+        public int size() {
+            return count;
+        }
+
     }
 
     private class SegmentList extends AbstractList<LineSegment> {
 
-        private final LineSegment[] segments = new LineSegment[points.length - 1];
+        private final LineSegment[] segments = new LineSegment[count - 1];
 
         @Override
         public LineSegment get(int index) {
             if (index < 0 || index >= segments.length) throw new NoSuchElementException("no linear path at index " + index);
             LineSegment segment = segments[index];
             if (segment == null) {
-                segment = LineSegment.fromPoints(points[index], points[index + 1]);
+                int i = index * 2;
+                segment = LineSegment.fromCoords(coords[i], coords[i + 1], coords[i + 2], coords[i + 3]);
                 segments[index] = segment;
             }
             return segment;
@@ -310,16 +347,224 @@ public class PolygonalPath implements Path {
 
     }
 
-    private Parameterizations getParams() {
-        if (params == null) {
-            List<Path> adapted = new AbstractList<Path>() {
-                final List<LineSegment> segments = getSegments();
-                @Override public Path get(int index) { return segments.get(index).getPath(); }
-                @Override public int size() { return segments.size(); }
-            };
-            params = new Parameterizations(this, adapted);
+    // the cumulative lengths of the segments, starting with zero
+    private double[] getLengths() {
+        if (lengths == null) {
+            double[] lengths = new double[count];
+            double sum = 0.0;
+            for (int i = 1; i < count; i++) {
+                int j = i * 2;
+                sum += Math.hypot(coords[j] - coords[j - 2], coords[j + 1] - coords[j - 1]);
+                lengths[i] = sum;
+            }
+            this.lengths = lengths;
+        }
+        return lengths;
+    }
+
+    private Vector tangentOf(int segment) {
+        int i = segment * 2;
+        return new Vector(coords[i + 2] - coords[i], coords[i + 3] - coords[i + 1]).normalized();
+    }
+
+    private Point pointOn(int segment, double t) {
+        int i = segment * 2;
+        return Point.Util.interpolate(coords[i], coords[i + 1], coords[i + 2], coords[i + 3], t);
+    }
+
+    // parameterizations that operate on the packed coordinates, locating segments directly by their index
+    // or by a binary search of the cumulative lengths; a parameter at a vertex is attributed to the earlier segment
+    private abstract class Param implements Parameterization {
+
+        // the index of the segment containing the parameter
+        abstract int segmentAt(double p);
+
+        // the parameter within the segment, from zero to one
+        abstract double fractionAt(int segment, double p);
+
+        // the parameter at the start of the segment
+        abstract double parameterOf(int segment);
+
+        abstract double getMaximum();
+
+        @Override
+        public Path getPath() {
+            return PolygonalPath.this;
+        }
+
+        @Override
+        public Path.Location location() {
+            return new Path.Location(this, 0.0);
+        }
+
+        @Override
+        public Point pointAt(double p) {
+            if (p <= 0.0) return getStart();
+            if (p >= getMaximum()) return getFinish();
+            int i = segmentAt(p);
+            return pointOn(i, fractionAt(i, p));
+        }
+
+        @Override
+        public Vector tangentAt(double p) {
+            return tangentOf(segmentAt(p));
+        }
+
+        @Override
+        public PointPath pointTangentAt(double p) {
+            return PointPath.from(pointAt(p), tangentAt(p));
+        }
+
+        @Override
+        public SplitPath splitAt(double p) {
+            if (p <= 0.0) return new SplitPath(degenerate(0, 0.0), PolygonalPath.this, closed);
+            if (p >= getMaximum()) return new SplitPath(PolygonalPath.this, degenerate(count - 2, 1.0), closed);
+            int i = segmentAt(p);
+            Point pt = pointOn(i, fractionAt(i, p));
+            Builder first = builder().addPoints(coords, 0, i * 2 + 2).addPoint(pt);
+            Builder second = builder().addPoint(pt).addPoints(coords, i * 2 + 2, coords.length - i * 2 - 2);
+            return new SplitPath(build(first, i, pt), build(second, i, pt), closed);
+        }
+
+        @Override
+        public Path segment(double minP, double maxP) {
+            double max = getMaximum();
+            if (minP <= 0.0) minP = 0.0;
+            if (maxP >= max) maxP = max;
+            if (minP > maxP) throw new IllegalArgumentException("minP exceeds maxP");
+            if (minP == 0.0 && maxP == max) return PolygonalPath.this;
+            int i = segmentAt(minP);
+            int j = segmentAt(maxP);
+            Point minPt = pointAt(minP);
+            Builder builder = builder().addPoint(minPt);
+            if (j > i) builder.addPoints(coords, i * 2 + 2, (j - i) * 2);
+            builder.addPoint(pointAt(maxP));
+            return build(builder, i, minPt);
+        }
+
+        @Override
+        public double parameterNearest(Point pt) {
+            double length = new Locator(PolygonalPath.this).getNearestLengthAlongPath(pt);
+            return fromLength(length);
+        }
+
+        @Override
+        public List<Path.Corner> getCorners() {
+            List<Path.Corner> list = new ArrayList<>();
+            Context context = Context.currentContext();
+            int segments = count - 1;
+            // possible corner at start of closed path
+            if (closed) {
+                Vector v1 = tangentOf(segments - 1);
+                Vector v2 = tangentOf(0);
+                if (context.isCorner(v1, v2)) list.add(new Path.Corner(this, 0.0, getStart(), v1, v2));
+            }
+            Vector v1 = tangentOf(0);
+            for (int i = 1; i < segments; i++) {
+                Vector v2 = tangentOf(i);
+                if (context.isCorner(v1, v2)) list.add(new Path.Corner(this, parameterOf(i), PolygonalPath.this.pointAt(i), v1, v2));
+                v1 = v2;
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        // converts a length along the path into a parameter of this parameterization
+        abstract double fromLength(double s);
+
+        // a zero length path at the end of a segment
+        private Path degenerate(int segment, double t) {
+            return LineSegment.fromPoint(pointOn(segment, t), tangentOf(segment)).getPath();
+        }
+
+        // a polygonal path, or a zero length path if the points coincide
+        private Path build(Builder builder, int segment, Point pt) {
+            return builder.pointCount() < 2 ? LineSegment.fromPoint(pt, tangentOf(segment)).getPath() : builder.build();
+        }
+
+    }
+
+    private final class ByIntrinsic extends Param implements Parameterization.ByIntrinsic {
+
+        @Override
+        int segmentAt(double p) {
+            int segments = count - 1;
+            int i = (int) Math.ceil(p * segments) - 1;
+            return i < 0 ? 0 : i >= segments ? segments - 1 : i;
         }
-        return params;
+
+        @Override
+        double fractionAt(int segment, double p) {
+            return p * (count - 1) - segment;
+        }
+
+        @Override
+        double parameterOf(int segment) {
+            return (double) segment / (count - 1);
+        }
+
+        @Override
+        double getMaximum() {
+            return 1.0;
+        }
+
+        @Override
+        public double lengthAt(double p) {
+            if (p <= 0.0) return 0.0;
+            double[] lengths = getLengths();
+            if (p >= 1.0) return lengths[count - 1];
+            int i = segmentAt(p);
+            return lengths[i] + (lengths[i + 1] - lengths[i]) * fractionAt(i, p);
+        }
+
+        @Override
+        double fromLength(double s) {
+            return byLength().intrinsicAt(s);
+        }
+
+    }
+
+    private final class ByLength extends Param implements Parameterization.ByLength {
+
+        @Override
+        int segmentAt(double p) {
+            double[] lengths = getLengths();
+            int i = Arrays.binarySearch(lengths, p);
+            // an exact hit on a vertex belongs to the preceding segment
+            i = i >= 0 ? i - 1 : -2 - i;
+            int segments = count - 1;
+            return i < 0 ? 0 : i >= segments ? segments - 1 : i;
+        }
+
+        @Override
+        double fractionAt(int segment, double p) {
+            double[] lengths = getLengths();
+            double length = lengths[segment + 1] - lengths[segment];
+            return length == 0.0 ? 0.0 : (p - lengths[segment]) / length;
+        }
+
+        @Override
+        double parameterOf(int segment) {
+            return getLengths()[segment];
+        }
+
+        @Override
+        double getMaximum() {
+            return getLengths()[count - 1];
+        }
+
+        @Override
+        public double intrinsicAt(double p) {
+            if (p <= 0.0) return 0.0;
+            if (p >= getMaximum()) return 1.0;
+            int i = segmentAt(p);
+            return (i + fractionAt(i, p)) / (count - 1);
+        }
+
+        @Override
+        double fromLength(double s) {
+            return s;
+        }
+
     }
 
 }
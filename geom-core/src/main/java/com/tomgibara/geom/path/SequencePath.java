@@ -178,6 +178,7 @@ public class SequencePath implements CompositePath {
             return addPoints(coords, 0, coords.length);
         }
 
+        @Override
         public Builder addPoints(double[] coords, int offset, int length) {
             if (coords == null) throw new IllegalArgumentException("null coords");
             if (offset < 0) throw new IllegalArgumentException("negative offset");
@@ -426,10 +427,10 @@ public class SequencePath implements CompositePath {
         for (Path path : paths) {
             if (soc == null) {
                 c = path.linearize(consumer);
-                soc = new SkipOneConsumer<>(consumer);
+                soc = new SkipOneConsumer<>(consumer, c);
             } else {
                 soc.skipNext();
-                c = path.linearize(consumer);
+                c = path.linearize(soc);
             }
         }
         return c;
@@ -608,9 +609,12 @@ public class SequencePath implements CompositePath {
 
         private final Point.Consumer<C> consumer;
         private boolean skipNext = false;
+        // returned in place of a skipped point, so that the consumer's result isn't lost
+        private C last;
 
-        SkipOneConsumer(Point.Consumer<C> consumer) {
+        SkipOneConsumer(Point.Consumer<C> consumer, C last) {
             this.consumer = consumer;
+            this.last = last;
         }
 
         void skipNext() {
@@ -621,9 +625,9 @@ public class SequencePath implements CompositePath {
         public C addPoint(double x, double y) {
             if (skipNext) {
                 skipNext = false;
-                return null;
+                return last;
             } else {
-                return consumer.addPoint(x, y);
+                return last = consumer.addPoint(x, y);
             }
         }
 
@@ -631,10 +635,20 @@ public class SequencePath implements CompositePath {
         public C addPoint(Point pt) {
             if (skipNext) {
                 skipNext = false;
-                return null;
+                return last;
             } else {
-                return consumer.addPoint(pt);
+                return last = consumer.addPoint(pt);
+            }
+        }
+
+        @Override
+        public C addPoints(double[] coords, int offset, int length) {
+            if (skipNext && length > 0) {
+                skipNext = false;
+                offset += 2;
+                length -= 2;
             }
+            return length == 0 ? last : (last = consumer.addPoints(coords, offset, length));
         }
 
     }
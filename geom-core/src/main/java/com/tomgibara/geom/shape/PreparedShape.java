@@ -0,0 +1,333 @@
+package com.tomgibara.geom.shape;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.tomgibara.geom.core.Point;
+
+// a shape with its contours linearized once into a table of edges, for classifying many points
+// the winding number is defined by the crossings of a ray to the right of the point; edges include their lower
+// end point but not their upper, so points on the boundary are classified consistently with their neighbours,
+// though not necessarily as Shape.containsPoint would classify them
+// shapes with many edges also bucket their edges into a uniform grid so that a query examines only one cell
+// instances are immutable and may be used by many threads concurrently
+public final class PreparedShape {
+
+    // the number of points classified by each task when classifying in parallel
+    private static final int CHUNK_SIZE = 1 << 12;
+    // shapes with fewer edges are always scanned
+    private static final int GRID_THRESHOLD = 32;
+    // positions within a grid cell tried for its reference point, chosen to avoid coordinates common in data
+    private static final double[] FRACTIONS = { 0.5 + 1.0 / 64.0, 0.381966, 0.618034, 0.276393, 0.723607, 0.170820 };
+
+    // +1 if the upward edge passes to the right of the point, -1 if the downward edge does, otherwise 0
+    private static int crossingRight(double x0, double y0, double x1, double y1, double x, double y) {
+        if (y0 <= y) {
+            if (y1 > y && (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0) > 0.0) return 1;
+        } else {
+            if (y1 <= y && (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0) < 0.0) return -1;
+        }
+        return 0;
+    }
+
+    // the same for a ray upwards from the point: +1 if the leftward edge passes above it, -1 if the rightward edge does
+    // for a point not on the boundary, these sum over all edges to the same winding number as crossingRight
+    private static int crossingAbove(double x0, double y0, double x1, double y1, double x, double y) {
+        if (x0 <= x) {
+            if (x1 > x && (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0) < 0.0) return -1;
+        } else {
+            if (x1 <= x && (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0) > 0.0) return 1;
+        }
+        return 0;
+    }
+
+    private static boolean isOnEdge(double x0, double y0, double x1, double y1, double x, double y) {
+        return x >= Math.min(x0, x1) && x <= Math.max(x0, x1) && y >= Math.min(y0, y1) && y <= Math.max(y0, y1)
+                && (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0) == 0.0;
+    }
+
+    private final Shape shape;
+    private final WindingRule windingRule;
+    // x0, y0, x1, y1 for each edge of non-zero length
+    private final double[] edges;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final Grid grid; // null if the edges are scanned
+
+    PreparedShape(Shape shape) {
+        this.shape = shape;
+        windingRule = shape.getWindingRule();
+        double[] edges = shape.linearizeEdges();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < edges.length; i += 2) {
+            minX = Math.min(minX, edges[i    ]);
+            minY = Math.min(minY, edges[i + 1]);
+            maxX = Math.max(maxX, edges[i    ]);
+            maxY = Math.max(maxY, edges[i + 1]);
+        }
+        this.edges = edges;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        grid = edges.length / 4 >= GRID_THRESHOLD && maxX > minX && maxY > minY ? new Grid() : null;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    // the number of edges in the table
+    public int getEdgeCount() {
+        return edges.length / 4;
+    }
+
+    public int windingNumber(double x, double y) {
+        // no edge passes a point beyond the extent of the edges
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) return 0;
+        return grid == null ? scan(x, y) : grid.windingNumber(x, y);
+    }
+
+    public boolean contains(double x, double y) {
+        return windingRule.isInterior(windingNumber(x, y));
+    }
+
+    public boolean contains(Point pt) {
+        if (pt == null) throw new IllegalArgumentException("null pt");
+        return contains(pt.x, pt.y);
+    }
+
+    // classifies the points with coordinates (xs[i], ys[i]) into out[i], in parallel if there are many
+    public void contains(double[] xs, double[] ys, boolean[] out) {
+        if (xs == null) throw new IllegalArgumentException("null xs");
+        if (ys == null) throw new IllegalArgumentException("null ys");
+        if (out == null) throw new IllegalArgumentException("null out");
+        int count = xs.length;
+        if (ys.length != count) throw new IllegalArgumentException("mismatched ys length");
+        if (out.length < count) throw new IllegalArgumentException("out too short");
+        if (count <= CHUNK_SIZE) {
+            contains(xs, ys, out, 0, count);
+        } else {
+            int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                int from = c * CHUNK_SIZE;
+                contains(xs, ys, out, from, Math.min(from + CHUNK_SIZE, count));
+            });
+        }
+    }
+
+    // the winding number from every edge, without the grid
+    int scan(double x, double y) {
+        double[] es = edges;
+        int winding = 0;
+        for (int i = 0; i < es.length; i += 4) {
+            winding += crossingRight(es[i], es[i + 1], es[i + 2], es[i + 3], x, y);
+        }
+        return winding;
+    }
+
+    private void contains(double[] xs, double[] ys, boolean[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = contains(xs[i], ys[i]);
+        }
+    }
+
+    // each cell lists the edges that may pass through it and records the winding number at a reference point inside it
+    // the winding number at a point is reached from the reference point of its cell by moving vertically to the height
+    // of the point, then horizontally to the point; only edges of the cell can be crossed on the way
+    private final class Grid {
+
+        private final int columns;
+        private final int rows;
+        private final double cellWidth;
+        private final double cellHeight;
+        // cell c has edges (as indices into the edge table) cellEdges[cellStart[c]] to cellEdges[cellStart[c + 1] - 1]
+        private final int[] cellStart;
+        private final int[] cellEdges;
+        private final double[] rowYs; // the height of the reference points in each row
+        private final double[] refXs; // the horizontal position of the reference point in each cell, NaN if none
+        private final int[] refWindings;
+
+        Grid() {
+            int count = edges.length / 4;
+            double width = maxX - minX;
+            double height = maxY - minY;
+            // roughly one cell for each edge
+            int columns = (int) Math.max(1, Math.min(1024, Math.round(Math.sqrt(count * width / height))));
+            int rows = (int) Math.max(1, Math.min(1024, Math.round((double) count / columns)));
+            this.columns = columns;
+            this.rows = rows;
+            cellWidth = width / columns;
+            cellHeight = height / rows;
+
+            int cells = columns * rows;
+            int[] counts = new int[cells + 1];
+            int total = bin(counts, null);
+            cellStart = new int[cells + 1];
+            for (int c = 0; c < cells; c++) {
+                cellStart[c + 1] = cellStart[c] + counts[c];
+            }
+            cellEdges = new int[total];
+            bin(Arrays.copyOf(cellStart, cells + 1), cellEdges);
+
+            rowYs = new double[rows];
+            refXs = new double[cells];
+            refWindings = new int[cells];
+            for (int row = 0; row < rows; row++) {
+                initRow(row);
+            }
+        }
+
+        int windingNumber(double x, double y) {
+            int cell = row(y) * columns + column(x);
+            double refX = refXs[cell];
+            if (Double.isNaN(refX)) return scan(x, y);
+            double refY = rowYs[cell / columns];
+            int winding = refWindings[cell];
+            double[] es = edges;
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                int e = cellEdges[i] * 4;
+                double x0 = es[e    ];
+                double y0 = es[e + 1];
+                double x1 = es[e + 2];
+                double y1 = es[e + 3];
+                // the turning point of the route must not lie on the boundary
+                if (isOnEdge(x0, y0, x1, y1, refX, y)) return scan(x, y);
+                winding += crossingAbove(x0, y0, x1, y1, refX, y) - crossingAbove(x0, y0, x1, y1, refX, refY);
+                winding += crossingRight(x0, y0, x1, y1, x, y) - crossingRight(x0, y0, x1, y1, refX, y);
+            }
+            return winding;
+        }
+
+        private int column(double x) {
+            return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / cellWidth)));
+        }
+
+        private int row(double y) {
+            return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / cellHeight)));
+        }
+
+        // counts or records the cells through which each edge may pass, returning the total number of entries
+        private int bin(int[] positions, int[] entries) {
+            // cells are widened slightly so that edges passing very close to a cell are included in it
+            double marginX = cellWidth * 1e-9;
+            double marginY = cellHeight * 1e-9;
+            double[] es = edges;
+            int total = 0;
+            for (int e = 0; e < es.length; e += 4) {
+                double x0 = es[e    ];
+                double y0 = es[e + 1];
+                double x1 = es[e + 2];
+                double y1 = es[e + 3];
+                int row0 = row(Math.min(y0, y1) - marginY);
+                int row1 = row(Math.max(y0, y1) + marginY);
+                for (int row = row0; row <= row1; row++) {
+                    // the horizontal extent of the edge within the band of the row
+                    double lowX;
+                    double highX;
+                    if (y0 == y1) {
+                        lowX = Math.min(x0, x1);
+                        highX = Math.max(x0, x1);
+                    } else {
+                        double bandMin = Math.max(Math.min(y0, y1), minY + row * cellHeight - marginY);
+                        double bandMax = Math.min(Math.max(y0, y1), minY + (row + 1) * cellHeight + marginY);
+                        double slope = (x1 - x0) / (y1 - y0);
+                        double xa = x0 + (bandMin - y0) * slope;
+                        double xb = x0 + (bandMax - y0) * slope;
+                        lowX = Math.max(Math.min(xa, xb), Math.min(x0, x1));
+                        highX = Math.min(Math.max(xa, xb), Math.max(x0, x1));
+                    }
+                    int column0 = column(lowX - marginX);
+                    int column1 = column(highX + marginX);
+                    for (int column = column0; column <= column1; column++) {
+                        int cell = row * columns + column;
+                        if (entries == null) {
+                            positions[cell]++;
+                        } else {
+                            entries[positions[cell]++] = e / 4;
+                        }
+                        total++;
+                    }
+                }
+            }
+            return total;
+        }
+
+        // chooses reference points for the cells of the row and finds their winding numbers by moving across the row
+        private void initRow(int row) {
+            int first = row * columns;
+            double refY = Double.NaN;
+            for (double fraction : FRACTIONS) {
+                double y = minY + (row + fraction) * cellHeight;
+                if (!hasVertexAt(first, first + columns, y, false)) {
+                    refY = y;
+                    break;
+                }
+            }
+            rowYs[row] = refY;
+            if (Double.isNaN(refY)) {
+                Arrays.fill(refXs, first, first + columns, Double.NaN);
+                return;
+            }
+            // every edge lies to the right of this point, so its crossings cancel
+            double x = minX - cellWidth;
+            int winding = 0;
+            for (int column = 0; column < columns; column++) {
+                int cell = first + column;
+                double refX = Double.NaN;
+                for (double fraction : FRACTIONS) {
+                    double candidate = minX + (column + fraction) * cellWidth;
+                    if (!hasVertexAt(cell, cell + 1, candidate, true) && !isOnBoundary(cell, candidate, refY)) {
+                        refX = candidate;
+                        break;
+                    }
+                }
+                // the reference point of a cell without one is still a convenient stop on the way across the row
+                double stop = Double.isNaN(refX) ? minX + (column + 0.5) * cellWidth : refX;
+                winding += crossingsBetween(cell, x, stop, refY);
+                refXs[cell] = refX;
+                refWindings[cell] = winding;
+                x = minX + (column + 1) * cellWidth;
+                winding += crossingsBetween(cell, stop, x, refY);
+            }
+        }
+
+        // the change in winding number from (fromX, y) to (toX, y), when only edges of the cell lie between them
+        private int crossingsBetween(int cell, double fromX, double toX, double y) {
+            double[] es = edges;
+            int change = 0;
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                int e = cellEdges[i] * 4;
+                change += crossingRight(es[e], es[e + 1], es[e + 2], es[e + 3], toX, y)
+                        - crossingRight(es[e], es[e + 1], es[e + 2], es[e + 3], fromX, y);
+            }
+            return change;
+        }
+
+        private boolean hasVertexAt(int fromCell, int toCell, double value, boolean horizontal) {
+            double[] es = edges;
+            int offset = horizontal ? 0 : 1;
+            for (int i = cellStart[fromCell]; i < cellStart[toCell]; i++) {
+                int e = cellEdges[i] * 4 + offset;
+                if (es[e] == value || es[e + 2] == value) return true;
+            }
+            return false;
+        }
+
+        private boolean isOnBoundary(int cell, double x, double y) {
+            double[] es = edges;
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                int e = cellEdges[i] * 4;
+                if (isOnEdge(es[e], es[e + 1], es[e + 2], es[e + 3], x, y)) return true;
+            }
+            return false;
+        }
+
+    }
+
+}
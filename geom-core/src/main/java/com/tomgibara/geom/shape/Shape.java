@@ -1,5 +1,6 @@
 package com.tomgibara.geom.shape;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.tomgibara.geom.contour.Contour;
@@ -8,6 +9,7 @@ import com.tomgibara.geom.core.Geometric;
 import com.tomgibara.geom.core.Point;
 import com.tomgibara.geom.core.Rect;
 import com.tomgibara.geom.helper.Winder;
+import com.tomgibara.geom.path.PolygonalPath;
 import com.tomgibara.geom.transform.Transform;
 
 public final class Shape implements Geometric {
@@ -16,6 +18,7 @@ public final class Shape implements Geometric {
     private final WindingRule windingRule;
     private List<Contour> publicContours = null;
     private Rect bounds = null;
+    private PreparedShape prepared = null;
 
     public Shape(WindingRule windingRule, Contour contour) {
         if (windingRule == null) throw new IllegalArgumentException("null winding Rule");
@@ -64,6 +67,36 @@ public final class Shape implements Geometric {
         return windingRule.isInterior(windingNumber);
     }
 
+    // the edges of the contours linearized under the current tolerances, as consecutive x0, y0, x1, y1 quadruples
+    // each contour is closed by a final edge back to its start, and edges of zero length are omitted
+    public double[] linearizeEdges() {
+        double[] edges = new double[64];
+        int length = 0;
+        for (Contour contour : contours) {
+            PolygonalPath.Builder builder = PolygonalPath.builder();
+            contour.getPath().linearize(builder);
+            if (builder.pointCount() < 2) continue;
+            double[] coords = builder.build().getCoords();
+            int last = coords.length - 2;
+            for (int i = 0; i <= last; i += 2) {
+                // the final edge closes the contour
+                int j = i == last ? 0 : i + 2;
+                if (coords[i] == coords[j] && coords[i + 1] == coords[j + 1]) continue;
+                if (length == edges.length) edges = Arrays.copyOf(edges, length * 2);
+                edges[length++] = coords[i    ];
+                edges[length++] = coords[i + 1];
+                edges[length++] = coords[j    ];
+                edges[length++] = coords[j + 1];
+            }
+        }
+        return Arrays.copyOf(edges, length);
+    }
+
+    // the contours are linearized with the tolerances in effect on the first call
+    public PreparedShape prepare() {
+        return prepared == null ? prepared = new PreparedShape(this) : prepared;
+    }
+
     @Override
     public Rect getBounds() {
         return bounds == null ? bounds = computeBounds() : bounds;
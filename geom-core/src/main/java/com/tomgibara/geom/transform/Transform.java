@@ -263,6 +263,15 @@ public final class Transform implements Transformable {
         return new Transform(x00, x10, x01, x11, x02, x12, flags);
     }
 
+    // the greatest factor by which the transform lengthens any vector, its largest singular value
+    // unlike the eigenvalues, this is unaffected by any rotation in the transform
+    public double getMaximumScale() {
+        if (isSkewPreserving()) return Math.max(Math.abs(m00), Math.abs(m11));
+        double s = m00 * m00 + m10 * m10 + m01 * m01 + m11 * m11;
+        double d = getDeterminant();
+        return Math.sqrt((s + Math.sqrt(Math.max(s * s - 4.0 * d * d, 0.0))) * 0.5);
+    }
+
     //TODO can we avoid recomputing these for basis?
     public Vector getEigenValues() {
         if (isSkewPreserving()) {
@@ -329,7 +338,8 @@ public final class Transform implements Transformable {
     }
 
     public boolean isIdentityOrTranslation() {
-        return (flags & (SKEW_PRESERVING | SCALE_PRESERVING)) == (SKEW_PRESERVING | SCALE_PRESERVING) && m00 == 1.0;
+        // note: scale preservation only fixes the determinant, so both diagonal components must be checked
+        return (flags & (SKEW_PRESERVING | SCALE_PRESERVING)) == (SKEW_PRESERVING | SCALE_PRESERVING) && m00 == 1.0 && m11 == 1.0;
     }
 
     public boolean isOriginPreserving() {
@@ -599,27 +609,71 @@ public final class Transform implements Transformable {
     }
 
     private void transformImpl(double[] coords, int from, int to) {
-        Pair pair = new Pair();
-        for (int i = from; i < to;) {
-            pair.x = coords[i    ];
-            pair.y = coords[i + 1];
-            transformImpl(pair);
-            coords[i++] = pair.x;
-            coords[i++] = pair.y;
-        }
+        transformImpl(coords, coords, from, from, to - from);
     }
 
+    // each case is a separate loop so that the per-point work is branch-free
+    // and the matrix components are held in locals, which lets the JIT unroll
+    // and vectorize; reading both coordinates before writing keeps in-place
+    // transformation safe
     private void transformImpl(double[] src, double[] dst, int srcOffset, int dstOffset, int count) {
-        Pair pair = new Pair();
         int limit = srcOffset + count;
-        int offset0 = dstOffset - srcOffset - 2;
-        int offset1 = dstOffset - srcOffset - 1;
-        for (int i = srcOffset; i < limit;) {
-            pair.x = src[i ++];
-            pair.y = src[i ++];
-            transformImpl(pair);
-            dst[offset0 + i] = pair.x;
-            dst[offset1 + i] = pair.y;
+        int delta = dstOffset - srcOffset;
+        if (isIdentityOrTranslation()) {
+            if (isOriginPreserving()) {
+                if (src != dst || delta != 0) System.arraycopy(src, srcOffset, dst, dstOffset, count);
+                return;
+            }
+            double tx = m02;
+            double ty = m12;
+            for (int i = srcOffset; i < limit; i += 2) {
+                double x = src[i    ];
+                double y = src[i + 1];
+                dst[delta + i    ] = x + tx;
+                dst[delta + i + 1] = y + ty;
+            }
+        } else if (isSkewPreserving()) {
+            double sx = m00;
+            double sy = m11;
+            if (isOriginPreserving()) {
+                for (int i = srcOffset; i < limit; i += 2) {
+                    double x = src[i    ];
+                    double y = src[i + 1];
+                    dst[delta + i    ] = x * sx;
+                    dst[delta + i + 1] = y * sy;
+                }
+            } else {
+                double tx = m02;
+                double ty = m12;
+                for (int i = srcOffset; i < limit; i += 2) {
+                    double x = src[i    ];
+                    double y = src[i + 1];
+                    dst[delta + i    ] = x * sx + tx;
+                    dst[delta + i + 1] = y * sy + ty;
+                }
+            }
+        } else {
+            double a = m00;
+            double b = m01;
+            double c = m10;
+            double d = m11;
+            if (isOriginPreserving()) {
+                for (int i = srcOffset; i < limit; i += 2) {
+                    double x = src[i    ];
+                    double y = src[i + 1];
+                    dst[delta + i    ] = x * a + y * b;
+                    dst[delta + i + 1] = x * c + y * d;
+                }
+            } else {
+                double tx = m02;
+                double ty = m12;
+                for (int i = srcOffset; i < limit; i += 2) {
+                    double x = src[i    ];
+                    double y = src[i + 1];
+                    dst[delta + i    ] = x * a + y * b + tx;
+                    dst[delta + i + 1] = x * c + y * d + ty;
+                }
+            }
         }
     }
 
@@ -636,7 +690,8 @@ public final class Transform implements Transformable {
         // non-translations
 
         case ORIGIN_PRESERVING | SKEW_PRESERVING | SCALE_PRESERVING :
-            break;
+            // may still be a reflection or a unit-determinant scale
+            if (m00 == 1.0 && m11 == 1.0) break;
         case ORIGIN_PRESERVING | SKEW_PRESERVING :
             pair.x = x * m00;
             pair.y = y * m11;
@@ -650,9 +705,11 @@ public final class Transform implements Transformable {
         // translations
 
         case SKEW_PRESERVING | SCALE_PRESERVING :
-            pair.x = x + m02;
-            pair.y = y + m12;
-            break;
+            if (m00 == 1.0 && m11 == 1.0) {
+                pair.x = x + m02;
+                pair.y = y + m12;
+                break;
+            }
         case SKEW_PRESERVING :
             pair.x = x * m00 + m02;
             pair.y = y * m11 + m12;
@@ -1,9 +1,34 @@
 package com.tomgibara.geom.core;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import junit.framework.TestCase;
 
 public class GeomUtilTest extends TestCase {
 
     public void testTodo() {}
 
+    public void testSortedIndices() {
+        Random r = new Random(0L);
+        for (int n = 0; n < 100; n++) {
+            int count = r.nextInt(200);
+            double[] keys = new double[count + r.nextInt(3)];
+            for (int i = 0; i < keys.length; i++) {
+                // repeated keys check that equal keys remain in index order
+                keys[i] = r.nextInt(20) - 10;
+            }
+            Integer[] expected = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                expected[i] = i;
+            }
+            Arrays.sort(expected, (a, b) -> Double.compare(keys[a], keys[b]));
+            int[] actual = GeomUtil.sortedIndices(keys, count);
+            assertEquals(count, actual.length);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected[i].intValue(), actual[i]);
+            }
+        }
+    }
+
 }
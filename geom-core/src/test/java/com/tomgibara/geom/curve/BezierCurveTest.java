@@ -0,0 +1,155 @@
+package com.tomgibara.geom.curve;
+
+import java.util.Random;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.LineSegment;
+import com.tomgibara.geom.core.Norm;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.path.SimplifiedPath;
+
+import junit.framework.TestCase;
+
+public class BezierCurveTest extends TestCase {
+
+    public void testLinearize() {
+        BezierCurve cubic = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+        BezierCurve quartic = BezierCurve.fromPoints(new Point(0, 0), new Point(0, 50), new Point(25, 60), new Point(50, -30), new Point(50, 0));
+        for (double flatness : new double[] {1.0, 0.25, 0.01}) {
+            Context.enter(Tolerances.defaults().builder().setFlatness(flatness).build(), null);
+            try {
+                checkLinearization(cubic, flatness);
+                checkLinearization(quartic, flatness);
+            } finally {
+                Context.exit();
+            }
+        }
+    }
+
+    private void checkLinearization(BezierCurve curve, double flatness) {
+        Point.List points = curve.getPath().linearize(new Point.List());
+        int segments = points.size() - 1;
+        assertTrue(segments > 1);
+        assertEquals(curve.pointAt(0.0), points.get(0));
+        assertEquals(curve.pointAt(1.0), points.get(segments));
+        for (int i = 0; i < segments; i++) {
+            // forward differenced points lie on the curve
+            Point pt = curve.pointAt((double) i / segments);
+            assertEquals(pt.x, points.get(i).x, 1e-6);
+            assertEquals(pt.y, points.get(i).y, 1e-6);
+            // and the chords stay within the flatness
+            LineSegment chord = LineSegment.fromPoints(points.get(i), points.get(i + 1));
+            for (int j = 1; j < 8; j++) {
+                Point mid = curve.pointAt((i + j / 8.0) / segments);
+                assertTrue(chord.nearestPointTo(mid).vectorTo(mid).getMagnitude() <= flatness);
+            }
+        }
+    }
+
+    public void testLineIntersection() {
+        BezierCurve cubic = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+        LineSegment line = LineSegment.fromPoints(new Point(-10, 10), new Point(90, 10));
+        double[] ts = cubic.intersectionParameters(line);
+        assertEquals(3, ts.length);
+        for (int i = 0; i < ts.length; i++) {
+            assertEquals(10.0, cubic.pointAt(ts[i]).y, 1e-12);
+            if (i > 0) assertTrue(ts[i - 1] < ts[i]);
+        }
+        // a segment covering only part of the line
+        assertEquals(1, cubic.intersectionParameters(LineSegment.fromPoints(new Point(-10, 10), new Point(20, 10))).length);
+        // tangency
+        BezierCurve quadratic = BezierCurve.fromPoints(new Point(0, 0), new Point(1, 2), new Point(2, 0));
+        double[] touch = quadratic.intersectionParameters(LineSegment.fromPoints(new Point(-1, 1), new Point(3, 1)));
+        assertEquals(1, touch.length);
+        assertEquals(0.5, touch[0], 1e-12);
+    }
+
+    public void testCurveIntersection() {
+        BezierCurve c1 = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+        BezierCurve c2 = BezierCurve.fromPoints(new Point(0, 30), new Point(30, -30), new Point(50, 60), new Point(80, 0));
+        double[] ts = c1.intersectionParameters(c2);
+        assertEquals(6, ts.length);
+        for (int i = 0; i < ts.length; i += 2) {
+            Point p1 = c1.pointAt(ts[i]);
+            Point p2 = c2.pointAt(ts[i + 1]);
+            assertEquals(p1.x, p2.x, 1e-9);
+            assertEquals(p1.y, p2.y, 1e-9);
+            if (i > 0) assertTrue(ts[i - 2] < ts[i]);
+        }
+        // overlapping curves have no isolated intersections
+        assertNull(c1.intersectionParameters(c1));
+    }
+
+    public void testParameterNearest() {
+        BezierCurve cubic = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+        BezierCurve quartic = BezierCurve.fromPoints(new Point(0, 0), new Point(0, 50), new Point(25, 60), new Point(50, -30), new Point(50, 0));
+        Random r = new Random(0L);
+        for (BezierCurve curve : new BezierCurve[] {cubic, quartic}) {
+            for (int i = 0; i < 100; i++) {
+                Point pt = new Point(r.nextDouble() * 120.0 - 20.0, r.nextDouble() * 100.0 - 40.0);
+                double t = curve.parameterNearest(pt);
+                assertTrue(t >= 0.0 && t <= 1.0);
+                double dist = Norm.L2.distanceBetween(pt, curve.pointAt(t));
+                for (int j = 0; j <= 1000; j++) {
+                    assertTrue(dist <= Norm.L2.distanceBetween(pt, curve.pointAt(j / 1000.0)) + 1e-9);
+                }
+            }
+            // points on the curve recover their own parameters
+            for (double t : new double[] {0.0, 0.125, 0.5, 0.75, 1.0}) {
+                assertEquals(t, curve.parameterNearest(curve.pointAt(t)), 1e-9);
+            }
+        }
+    }
+
+    public void testBounds() {
+        Random r = new Random(1L);
+        for (int order = 1; order <= 5; order++) {
+            for (int n = 0; n < 20; n++) {
+                Point[] points = new Point[order + 1];
+                for (int i = 0; i <= order; i++) {
+                    points[i] = new Point(r.nextDouble() * 100.0, r.nextDouble() * 100.0);
+                }
+                BezierCurve curve = BezierCurve.fromPoints(points);
+                Rect bounds = curve.getBounds();
+                double minX = Double.POSITIVE_INFINITY;
+                double minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j <= 10000; j++) {
+                    Point pt = curve.pointAt(j / 10000.0);
+                    minX = Math.min(minX, pt.x);
+                    minY = Math.min(minY, pt.y);
+                    maxX = Math.max(maxX, pt.x);
+                    maxY = Math.max(maxY, pt.y);
+                }
+                // the bounds contain every point and are no larger than sampling finds, up to its resolution
+                assertTrue(bounds.minX <= minX + 1e-9 && bounds.maxX >= maxX - 1e-9);
+                assertTrue(bounds.minY <= minY + 1e-9 && bounds.maxY >= maxY - 1e-9);
+                assertEquals(minX, bounds.minX, 1e-4);
+                assertEquals(minY, bounds.minY, 1e-4);
+                assertEquals(maxX, bounds.maxX, 1e-4);
+                assertEquals(maxY, bounds.maxY, 1e-4);
+                assertTrue(curve.getHullBounds().containsRect(bounds));
+            }
+        }
+    }
+
+    public void testSimplificationRetained() {
+        CurvePath path = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30)).getPath();
+        SimplifiedPath simplified = path.simplify();
+        assertSame(simplified, path.simplify());
+        // the subdivision is rebuilt for other tolerances
+        Tolerances coarse = Tolerances.defaults().builder().setLeastNonLinearDeviation(0.1).build();
+        Context.enter(coarse, null);
+        try {
+            SimplifiedPath other = path.simplify();
+            assertNotSame(simplified, other);
+            assertSame(other, path.simplify());
+        } finally {
+            Context.exit();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.tomgibara.geom.curve;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.floats.FloatMapping;
+import com.tomgibara.geom.floats.FloatRange;
+
+import junit.framework.TestCase;
+
+public class CurveLengthTest extends TestCase {
+
+    private static BezierCurve cubic() {
+        return BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+    }
+
+    public void testLengthTable() {
+        BezierCurve plain = cubic();
+        double length = plain.getPath().getLength();
+        double t = plain.lengthToIntrinsic(length * 0.3);
+
+        Context.enter(Tolerances.defaults().builder().setLengthTableSize(64).build(), null);
+        try {
+            BezierCurve tabled = cubic();
+            assertEquals(length, tabled.getPath().getLength(), 1e-6);
+            assertEquals(plain.intrinsicToLength(0.7), tabled.intrinsicToLength(0.7), 1e-6);
+            assertEquals(t, tabled.lengthToIntrinsic(length * 0.3), 1e-6);
+            for (int i = 1; i < 20; i++) {
+                double s = length * i / 20;
+                assertEquals(s, tabled.intrinsicToLength(tabled.lengthToIntrinsic(s)), 1e-9);
+            }
+        } finally {
+            Context.exit();
+        }
+    }
+
+    public void testLengthTableTolerances() {
+        BezierCurve curve = cubic();
+        double exact = cubic().getPath().getLength();
+        Tolerances coarse = Tolerances.defaults().builder().setLengthTableSize(1).setQuadratureSteps(2).build();
+        Tolerances fine = Tolerances.defaults().builder().setLengthTableSize(1).setAbsoluteLengthTolerance(1e-9).build();
+        Context.enter(coarse, null);
+        try {
+            assertTrue(Math.abs(curve.intrinsicToLength(1.0) - exact) > 1e-3);
+        } finally {
+            Context.exit();
+        }
+        // a table of the same size is not reused under different quadrature tolerances
+        Context.enter(fine, null);
+        try {
+            assertEquals(exact, curve.intrinsicToLength(1.0), 1e-6);
+        } finally {
+            Context.exit();
+        }
+    }
+
+    public void testAdaptiveQuadrature() {
+        double length = cubic().getPath().getLength();
+        Context.enter(Tolerances.defaults().builder().setAbsoluteLengthTolerance(1e-9).build(), null);
+        try {
+            BezierCurve adaptive = cubic();
+            assertEquals(length, adaptive.getPath().getLength(), 1e-6);
+            BezierCurve line = BezierCurve.fromPoints(new Point(0, 0), new Point(1, 1), new Point(2, 2), new Point(3, 3));
+            assertEquals(Math.sqrt(18), line.getPath().getLength(), 1e-9);
+        } finally {
+            Context.exit();
+        }
+    }
+
+    public void testClosedFormDerivatives() {
+        EllipticalArc arc = Ellipse.fromRadius(new Point(5, 5), 10).arc(0.0, Math.PI);
+        assertEquals(10 * Math.PI, arc.getPath().getLength(), 1e-9);
+        assertEquals(0.0, arc.tangentAt(0.5).x + 1.0, 1e-9);
+
+        Spiral spiral = Spiral.from(new Point(0, 0), 0.0, Math.PI, 10.0, 10.0);
+        assertEquals(10 * Math.PI, spiral.getPath().getLength(), 1e-9);
+
+        OffsetCurve offset = OffsetCurve.from(arc.getPath(), FloatMapping.Util.constant(FloatRange.UNIT_CLOSED, 2.0));
+        assertEquals(8 * Math.PI, offset.getPath().getLength(), 1e-6);
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.tomgibara.geom.curve;
+
+import java.util.Random;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.path.PolygonalPath;
+import com.tomgibara.geom.transform.Transform;
+
+import junit.framework.TestCase;
+
+public class EllipseTest extends TestCase {
+
+    private static void assertBounds(Rect bounds, Curve curve) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j <= 10000; j++) {
+            Point pt = curve.pointAt(j / 10000.0);
+            minX = Math.min(minX, pt.x);
+            minY = Math.min(minY, pt.y);
+            maxX = Math.max(maxX, pt.x);
+            maxY = Math.max(maxY, pt.y);
+        }
+        assertTrue(bounds.minX <= minX + 1e-9 && bounds.maxX >= maxX - 1e-9);
+        assertTrue(bounds.minY <= minY + 1e-9 && bounds.maxY >= maxY - 1e-9);
+        assertEquals(minX, bounds.minX, 1e-3);
+        assertEquals(minY, bounds.minY, 1e-3);
+        assertEquals(maxX, bounds.maxX, 1e-3);
+        assertEquals(maxY, bounds.maxY, 1e-3);
+    }
+
+    private static double[] linearize(Curve curve, Tolerances tolerances) {
+        Context.enter(tolerances, null);
+        try {
+            PolygonalPath.Builder builder = PolygonalPath.builder();
+            curve.getPath().linearize(builder);
+            return builder.build().getCoords();
+        } finally {
+            Context.exit();
+        }
+    }
+
+    // the greatest distance from a point on the curve to the polyline, both viewed through the transform
+    private static double deviation(Curve curve, double[] coords, Transform view) {
+        coords = coords.clone();
+        view.transform(coords);
+        double max = 0.0;
+        for (int j = 0; j <= 2000; j++) {
+            Point pt = view.transform(curve.pointAt(j / 2000.0));
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 2; i < coords.length; i += 2) {
+                double x0 = coords[i - 2];
+                double y0 = coords[i - 1];
+                double dx = coords[i    ] - x0;
+                double dy = coords[i + 1] - y0;
+                double len = dx * dx + dy * dy;
+                double t = len == 0.0 ? 0.0 : Math.max(0.0, Math.min(1.0, ((pt.x - x0) * dx + (pt.y - y0) * dy) / len));
+                min = Math.min(min, Math.hypot(pt.x - x0 - t * dx, pt.y - y0 - t * dy));
+            }
+            max = Math.max(max, min);
+        }
+        return max;
+    }
+
+    public void testLinearizationFlatness() {
+        Ellipse ellipse = Ellipse.fromTransform(Transform.components(150.0, 40.0, -20.0, 30.0, 10.0, 5.0));
+        EllipticalArc arc = ellipse.arc(0.1, 0.85);
+        int previous = 0;
+        for (double flatness : new double[] { 10.0, 1.0, 0.1, 0.01 }) {
+            double[] coords = linearize(arc, Tolerances.defaults().builder().setFlatness(flatness).build());
+            assertTrue(deviation(arc, coords, Transform.identity()) <= flatness);
+            assertTrue(coords.length > previous);
+            previous = coords.length;
+        }
+        // sheared ellipses stretch the circle far more than their eigenvalues indicate
+        Transform[] shears = {
+                Transform.components(1.0, 0.0, 10.0, 1.0, 0.0, 0.0),
+                Transform.components(20.0, 150.0, 0.0, 20.0, -5.0, 3.0),
+        };
+        for (Transform shear : shears) {
+            for (EllipticalArc sheared : new EllipticalArc[] { Ellipse.fromTransform(shear).completeArc(), Ellipse.fromTransform(shear).arc(0.1, 0.85) }) {
+                for (double flatness : new double[] { 1.0, 0.25, 0.01 }) {
+                    double[] coords = linearize(sheared, Tolerances.defaults().builder().setFlatness(flatness).build());
+                    assertTrue(deviation(sheared, coords, Transform.identity()) <= flatness);
+                }
+            }
+        }
+        // a flatness beyond the radius still leaves the ends of the arc
+        double[] coords = linearize(arc, Tolerances.defaults().builder().setFlatness(1000.0).build());
+        Point start = arc.pointAt(0.0);
+        Point finish = arc.pointAt(1.0);
+        assertEquals(start.x, coords[0], 1e-9);
+        assertEquals(start.y, coords[1], 1e-9);
+        assertEquals(finish.x, coords[coords.length - 2], 1e-9);
+        assertEquals(finish.y, coords[coords.length - 1], 1e-9);
+    }
+
+    public void testViewLinearization() {
+        EllipticalArc circle = Ellipse.fromRadius(new Point(500, 500), 1000).completeArc();
+        BezierCurve bezier = BezierCurve.fromPoints(new Point(0, 0), new Point(300, 1200), new Point(900, -400), new Point(1500, 600));
+        Tolerances defaults = Tolerances.defaults();
+        for (Curve curve : new Curve[] { circle, bezier }) {
+            int previous = 0;
+            for (double zoom : new double[] { 0.001, 0.01, 1.0, 10.0 }) {
+                Transform view = Transform.scale(zoom, zoom * 0.5).apply(Transform.rotation(0.3));
+                Tolerances tolerances = defaults.forView(view, 0.5);
+                assertEquals(0.5 / zoom, tolerances.getFlatness(), 1e-9 / zoom);
+                double[] coords = linearize(curve, tolerances);
+                assertTrue(deviation(curve, coords, view) <= 0.5);
+                assertTrue(coords.length >= previous);
+                previous = coords.length;
+            }
+            // zoomed far out, the curve needs few vertices compared to its default linearization
+            int far = linearize(curve, defaults.forView(Transform.scale(0.001), 0.5)).length;
+            int near = linearize(curve, defaults).length;
+            assertTrue(far * 10 < near);
+        }
+    }
+
+    public void testBounds() {
+        Random r = new Random(0L);
+        for (int n = 0; n < 50; n++) {
+            Transform t = Transform.components(
+                    r.nextDouble() * 40.0 - 20.0, r.nextDouble() * 40.0 - 20.0,
+                    r.nextDouble() * 40.0 - 20.0, r.nextDouble() * 40.0 - 20.0,
+                    r.nextDouble() * 100.0, r.nextDouble() * 100.0);
+            Ellipse ellipse = Ellipse.fromTransform(t);
+            assertBounds(ellipse.getBounds(), ellipse.completeArc());
+            for (int i = 0; i < 20; i++) {
+                double start = r.nextDouble() * 20.0 - 10.0;
+                double finish = start + r.nextDouble() * 8.0 - 4.0;
+                EllipticalArc arc = ellipse.arc(start, finish);
+                assertBounds(arc.getBounds(), arc);
+            }
+        }
+    }
+
+    public void testSmallArc() {
+        // a quarter circle is bounded by a quarter of the circle's bounds
+        Ellipse circle = Ellipse.fromRadius(new Point(10, 20), 5);
+        Rect bounds = circle.arc(0.0, Math.PI * 0.5).getBounds();
+        assertEquals(Rect.atPoints(10, 20, 15, 25), bounds);
+        assertEquals(Rect.atPoints(5, 15, 15, 25), circle.getBounds());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.Ellipse;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+import com.tomgibara.geom.path.SequencePath;
+
+import junit.framework.TestCase;
+
+public class ClippedLinearizerTest extends TestCase {
+
+    // a closed loop of cubic curves around a center
+    private static Path loop(double cx, double cy, double radius, int count, long seed) {
+        Random r = new Random(seed);
+        Point[] pts = new Point[count];
+        for (int i = 0; i < count; i++) {
+            double angle = Math.PI * 2.0 * i / count;
+            double d = radius * (0.5 + r.nextDouble());
+            pts[i] = new Point(cx + d * Math.cos(angle), cy + d * Math.sin(angle));
+        }
+        SequencePath.Builder builder = SequencePath.builder();
+        for (int i = 0; i < count; i++) {
+            Point p0 = pts[i];
+            Point p3 = pts[(i + 1) % count];
+            Point p1 = new Point(p0.x + (r.nextDouble() - 0.5) * radius, p0.y + (r.nextDouble() - 0.5) * radius);
+            Point p2 = new Point(p3.x + (r.nextDouble() - 0.5) * radius, p3.y + (r.nextDouble() - 0.5) * radius);
+            builder.addPath(BezierCurve.fromPoints(p0, p1, p2, p3).getPath());
+        }
+        return builder.closeAndBuild();
+    }
+
+    private static double[] full(Path path) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        path.linearize(builder);
+        return builder.build().getCoords();
+    }
+
+    private static double[] clipped(Path path, Rect rect) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        new ClippedLinearizer(rect).linearize(path, builder);
+        return builder.build().getCoords();
+    }
+
+    // the winding number of the closed polyline about the point
+    private static int winding(double[] coords, double x, double y) {
+        int w = 0;
+        int n = coords.length;
+        for (int i = 0; i < n; i += 2) {
+            double x0 = coords[i];
+            double y0 = coords[i + 1];
+            double x1 = coords[(i + 2) % n];
+            double y1 = coords[(i + 3) % n];
+            if (y0 <= y != y1 <= y) {
+                double cx = x0 + (y - y0) / (y1 - y0) * (x1 - x0);
+                if (cx > x) w += y1 > y0 ? 1 : -1;
+            }
+        }
+        return w;
+    }
+
+    private static double distance(double[] coords, double x, double y) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 2; i < coords.length; i += 2) {
+            double x0 = coords[i - 2];
+            double y0 = coords[i - 1];
+            double dx = coords[i    ] - x0;
+            double dy = coords[i + 1] - y0;
+            double len = dx * dx + dy * dy;
+            double t = len == 0.0 ? 0.0 : Math.max(0.0, Math.min(1.0, ((x - x0) * dx + (y - y0) * dy) / len));
+            min = Math.min(min, Math.hypot(x - x0 - t * dx, y - y0 - t * dy));
+        }
+        return min;
+    }
+
+    public void testContained() {
+        Path path = loop(50, 50, 20, 12, 0L);
+        assertTrue(Arrays.equals(full(path), clipped(path, Rect.atPoints(0, 0, 100, 100))));
+    }
+
+    public void testWindingPreserved() {
+        Rect rect = Rect.atPoints(30, 40, 90, 80);
+        for (long seed = 0L; seed < 10L; seed++) {
+            Path path = loop(60, 60, 40, 16, seed);
+            double[] full = full(path);
+            double[] clipped = clipped(path, rect);
+            for (int i = 0; i < clipped.length; i += 2) {
+                assertTrue(rect.containsPoint(new Point(clipped[i], clipped[i + 1])));
+            }
+            for (double y = rect.minY + 0.3; y < rect.maxY; y += 1.0) {
+                for (double x = rect.minX + 0.7; x < rect.maxX; x += 1.0) {
+                    // the clipped curves may be linearized differently, but no more than the flatness from the curve
+                    if (distance(full, x, y) < 1.0) continue;
+                    assertEquals(winding(full, x, y), winding(clipped, x, y));
+                }
+            }
+        }
+    }
+
+    public void testCulled() {
+        // a distant loop is reduced to points on the boundary
+        Rect rect = Rect.atPoints(0, 0, 10, 10);
+        Path path = loop(500, 500, 100, 32, 0L);
+        Point.List points = new ClippedLinearizer(rect).linearize(path, new Point.List());
+        assertEquals(Arrays.asList(new Point(10, 10)), points);
+    }
+
+    public void testEnclosing() {
+        // a large circle around the rect winds about every point in it, but is mostly culled
+        Rect rect = Rect.atPoints(0, 0, 10, 10);
+        Path path = Ellipse.fromRadius(new Point(5, 5), 1000).completeArc().getPath();
+        double[] clipped = clipped(path, rect);
+        assertTrue(clipped.length < 40);
+        assertEquals(Math.abs(winding(full(path), 5, 5)), Math.abs(winding(clipped, 5, 5)));
+        assertEquals(1, Math.abs(winding(clipped, 0.5, 9.5)));
+
+        // a circle crossing the rect is only linearized in detail where it is visible
+        path = Ellipse.fromRadius(new Point(1005, 5), 1000).completeArc().getPath();
+        double[] full = full(path);
+        clipped = clipped(path, rect);
+        assertTrue(clipped.length * 4 < full.length);
+        for (double y = 0.5; y < 10; y += 1.0) {
+            for (double x = 0.5; x < 10; x += 1.0) {
+                if (distance(full, x, y) < 1.0) continue;
+                assertEquals(winding(full, x, y), winding(clipped, x, y));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.tomgibara.geom.helper;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class IntersectorTest extends TestCase {
+
+    private static Path randomPolygon(Random r, int count) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < count; i++) {
+            builder.addPoint(r.nextDouble() * 100.0, r.nextDouble() * 100.0);
+        }
+        return builder.build();
+    }
+
+    public void testSweepMatchesRecursion() {
+        Random r = new Random(0L);
+        for (int n = 0; n < 20; n++) {
+            Path p1 = randomPolygon(r, 2 + r.nextInt(30));
+            Path p2 = randomPolygon(r, 2 + r.nextInt(30));
+            // recursion does not order the intersections within a segment
+            Point.List expected = new Point.List();
+            new Intersector(expected).intersect(p1, p2);
+            Point.List actual = new Point.List();
+            new Intersector(actual).intersectBySweep(p1, p2);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        }
+    }
+
+    public void testSweepPrunes() {
+        Path p1 = PolygonalPath.builder().addPoint(0, 0).addPoint(1000, 1).build();
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.addPoint(i + 0.5, (i & 1) == 0 ? -1 : 2);
+        }
+        Path p2 = builder.build();
+        Point.List list = new Point.List();
+        Intersector intersector = new Intersector(list);
+        intersector.intersectBySweep(p1, p2);
+        assertEquals(999, list.size());
+        assertEquals(999, intersector.getLineChecks());
+    }
+
+    public void testSweepRetiresAfterExhaustion() {
+        // 2000 short segments, all of which start before the second path has any short segments
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i <= 2000; i++) {
+            builder.addPoint(i, i & 1);
+        }
+        Path p1 = builder.build();
+        // a long segment across the first path, then 2000 short segments beyond it
+        builder = PolygonalPath.builder().addPoint(-1, 0.5).addPoint(4001, 0.5);
+        for (int i = 1; i < 2000; i++) {
+            builder.addPoint(4001 - i, 10 + (i & 1));
+        }
+        Path p2 = builder.build();
+        Point.List list = new Point.List();
+        Intersector intersector = new Intersector(list);
+        intersector.intersectBySweep(p1, p2);
+        assertEquals(2000, list.size());
+        // each segment of the first path meets the long segment, and is then retired by the first short segment
+        assertTrue(intersector.getRectChecks() < 3 * 2000);
+    }
+
+}
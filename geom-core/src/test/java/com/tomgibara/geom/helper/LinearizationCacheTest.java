@@ -0,0 +1,98 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.tomgibara.geom.core.Context;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Tolerances;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class LinearizationCacheTest extends TestCase {
+
+    private static Path curve(double offset) {
+        return BezierCurve.fromPoints(new Point(offset, 0), new Point(offset + 10, 40), new Point(offset + 60, -20), new Point(offset + 80, 30)).getPath();
+    }
+
+    private static double[] direct(Path path) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        path.linearize(builder);
+        return builder.build().getCoords();
+    }
+
+    public void testReplay() {
+        LinearizationCache cache = new LinearizationCache(1 << 20);
+        Path path = curve(0);
+        double[] expected = direct(path);
+        assertTrue(Arrays.equals(expected, cache.getCoords(path)));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        cache.linearize(path, builder);
+        assertTrue(Arrays.equals(expected, builder.build().getCoords()));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+        assertEquals(expected.length * 8L + 128, cache.getBytes());
+    }
+
+    public void testTolerances() {
+        LinearizationCache cache = new LinearizationCache(1 << 20);
+        Path path = curve(0);
+        double[] coarse = cache.getCoords(path);
+        Context.enter(Tolerances.defaults().builder().setFlatness(0.01).build(), null);
+        try {
+            double[] fine = cache.getCoords(path);
+            assertTrue(fine.length > coarse.length);
+            assertTrue(Arrays.equals(direct(path), fine));
+        } finally {
+            Context.exit();
+        }
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        cache.getCoords(path);
+        assertEquals(1, cache.getHits());
+    }
+
+    public void testEviction() {
+        Path[] paths = { curve(0), curve(100), curve(200) };
+        long size = direct(paths[0]).length * 8L + 128;
+        LinearizationCache cache = new LinearizationCache(size * 2);
+        cache.getCoords(paths[0]);
+        cache.getCoords(paths[1]);
+        // using the first path makes the second the least recently used
+        cache.getCoords(paths[0]);
+        cache.getCoords(paths[2]);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertEquals(size * 2, cache.getBytes());
+        long misses = cache.getMisses();
+        cache.getCoords(paths[0]);
+        cache.getCoords(paths[2]);
+        assertEquals(misses, cache.getMisses());
+        cache.getCoords(paths[1]);
+        assertEquals(misses + 1, cache.getMisses());
+
+        // an entry that exceeds the budget is not retained
+        LinearizationCache small = new LinearizationCache(size - 1);
+        assertTrue(Arrays.equals(direct(paths[0]), small.getCoords(paths[0])));
+        assertEquals(0, small.size());
+        assertEquals(0, small.getEvictions());
+    }
+
+    public void testConcurrent() {
+        Path[] paths = IntStream.range(0, 50).mapToObj(i -> curve(i * 10)).toArray(Path[]::new);
+        double[][] expected = Arrays.stream(paths).map(LinearizationCacheTest::direct).toArray(double[][]::new);
+        LinearizationCache cache = new LinearizationCache(expected[0].length * 8L * 20);
+        IntStream.range(0, 10000).parallel().forEach(i -> {
+            int j = (i * 7) % paths.length;
+            assertTrue(Arrays.equals(expected[j], cache.getCoords(paths[j])));
+        });
+        assertEquals(10000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getBytes() <= cache.getBudget());
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.tomgibara.geom.helper;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import com.tomgibara.geom.core.LineSegment;
+import com.tomgibara.geom.core.Norm;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class LocatorTest extends TestCase {
+
+    public void testSquare() {
+        Path square = PolygonalPath.builder().addPoint(0, 0).addPoint(10, 0).addPoint(10, 10).addPoint(0, 10).closeAndBuild();
+        Locator locator = new Locator(square);
+        assertEquals(5.0, locator.getNearestLengthAlongPath(new Point(5, -3)), 1e-12);
+        assertEquals(15.0, locator.getNearestLengthAlongPath(new Point(12, 5)), 1e-12);
+        assertEquals(25.0, locator.getNearestLengthAlongPath(new Point(5, 13)), 1e-12);
+        assertEquals(35.0, locator.getNearestLengthAlongPath(new Point(4, 5)), 1e-12);
+    }
+
+    public void testMatchesExhaustiveSearch() {
+        Random r = new Random(0L);
+        for (int n = 0; n < 20; n++) {
+            PolygonalPath.Builder builder = PolygonalPath.builder();
+            int count = 2 + r.nextInt(50);
+            for (int i = 0; i < count; i++) {
+                builder.addPoint(r.nextDouble() * 100.0, r.nextDouble() * 100.0);
+            }
+            PolygonalPath path = builder.build();
+            double[] coords = path.getCoords();
+            Locator locator = new Locator(path);
+            for (int i = 0; i < 20; i++) {
+                Point pt = new Point(r.nextDouble() * 140.0 - 20.0, r.nextDouble() * 140.0 - 20.0);
+                double expected = Double.POSITIVE_INFINITY;
+                for (int j = 0; j < coords.length - 2; j += 2) {
+                    LineSegment segment = LineSegment.fromCoords(coords[j], coords[j + 1], coords[j + 2], coords[j + 3]);
+                    expected = Math.min(expected, Norm.L2.distanceBetween(pt, segment.nearestPointTo(pt)));
+                }
+                double length = locator.getNearestLengthAlongPath(pt);
+                assertEquals(expected, Norm.L2.distanceBetween(pt, path.byLength().pointAt(length)), 1e-9);
+            }
+        }
+    }
+
+    public void testSharedBetweenThreads() {
+        Path path = PolygonalPath.builder().addPoint(0, 0).addPoint(50, 80).addPoint(100, 0).addPoint(150, 80).build();
+        Locator locator = new Locator(path);
+        double[] expected = IntStream.range(0, 1000).mapToDouble(i -> locator.getNearestLengthAlongPath(new Point(i % 150, i / 10))).toArray();
+        double[] actual = IntStream.range(0, 1000).parallel().mapToDouble(i -> locator.getNearestLengthAlongPath(new Point(i % 150, i / 10))).toArray();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i]);
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.tomgibara.geom.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class MultiIntersectorTest extends TestCase {
+
+    private static List<Path> randomPaths(Random r, int count) {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double x = r.nextDouble() * 1000.0;
+            double y = r.nextDouble() * 1000.0;
+            paths.add(PolygonalPath.builder()
+                    .addPoint(x, y)
+                    .addPoint(x + r.nextDouble() * 60.0, y + r.nextDouble() * 60.0)
+                    .addPoint(x + r.nextDouble() * 60.0, y - r.nextDouble() * 60.0)
+                    .build());
+        }
+        return paths;
+    }
+
+    private static List<String> pairwise(List<Path> paths) {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            for (int j = i + 1; j < paths.size(); j++) {
+                Point.List list = new Point.List();
+                new Intersector(list).intersect(paths.get(i), paths.get(j));
+                for (Point pt : list) {
+                    expected.add(i + " " + j + " " + pt);
+                }
+            }
+        }
+        return expected;
+    }
+
+    public void testMatchesPairwise() {
+        List<Path> paths = randomPaths(new Random(0L), 300);
+        List<String> expected = pairwise(paths);
+        assertFalse(expected.isEmpty());
+
+        for (boolean parallel : new boolean[] { false, true }) {
+            List<String> actual = new ArrayList<>();
+            MultiIntersector intersector = new MultiIntersector((i, j, pt) -> actual.add(i + " " + j + " " + pt), parallel);
+            intersector.intersect(paths);
+            assertEquals(expected, actual);
+            assertTrue(intersector.getCandidatePairs() < paths.size() * (paths.size() - 1) / 20);
+        }
+    }
+
+    public void testOversized() {
+        Random r = new Random(1L);
+        List<Path> paths = randomPaths(r, 300);
+        // long paths across the whole collection, interleaved with the small ones
+        for (int i = 0; i < 6; i++) {
+            double offset = i * 150.0;
+            paths.add(i * 40, PolygonalPath.builder().addPoint(-10.0, offset).addPoint(1100.0, 1000.0 - offset).build());
+        }
+        List<String> expected = pairwise(paths);
+
+        List<String> actual = new ArrayList<>();
+        new MultiIntersector((i, j, pt) -> actual.add(i + " " + j + " " + pt), false).intersect(paths);
+        assertEquals(expected, actual);
+
+        // the long paths are not recorded in the cells of the grid
+        Rect[] bounds = new Rect[paths.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = paths.get(i).getBounds();
+        }
+        BoundsGrid grid = new BoundsGrid(bounds);
+        assertEquals(6, grid.oversized().length);
+        int entries = 0;
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            entries += grid.cellSize(cell);
+        }
+        assertTrue(entries < 4 * paths.size());
+    }
+
+}
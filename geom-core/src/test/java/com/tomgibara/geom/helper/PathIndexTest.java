@@ -0,0 +1,87 @@
+package com.tomgibara.geom.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.tomgibara.geom.core.Norm;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.path.Path;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class PathIndexTest extends TestCase {
+
+    private static List<Path> randomPaths(Random r, int count) {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double x = r.nextDouble() * 1000.0;
+            double y = r.nextDouble() * 1000.0;
+            Point p1 = new Point(x, y);
+            Point p2 = new Point(x + r.nextDouble() * 40.0, y + r.nextDouble() * 40.0);
+            Point p3 = new Point(x + r.nextDouble() * 40.0, y - r.nextDouble() * 40.0);
+            paths.add(i % 2 == 0 ? PolygonalPath.builder().addPoint(p1).addPoint(p2).addPoint(p3).build() : BezierCurve.fromPoints(p1, p2, p3).getPath());
+        }
+        return paths;
+    }
+
+    // the distances from the point to every path, as found by their locators, in increasing order
+    private static List<Double> distances(List<Path> paths, Point pt) {
+        List<Double> distances = new ArrayList<>();
+        for (Path path : paths) {
+            double length = new Locator(path).getNearestLengthAlongPath(pt);
+            distances.add(Norm.L2.distanceBetween(pt, path.byLength().pointAt(length)));
+        }
+        Collections.sort(distances);
+        return distances;
+    }
+
+    public void testMatchesExhaustiveSearch() {
+        Random r = new Random(0L);
+        List<Path> paths = randomPaths(r, 500);
+        PathIndex index = new PathIndex(paths);
+        assertEquals(500, index.size());
+        for (int i = 0; i < 50; i++) {
+            Point pt = new Point(r.nextDouble() * 1100.0 - 50.0, r.nextDouble() * 1100.0 - 50.0);
+            List<Double> expected = distances(paths, pt);
+
+            Proximity nearest = index.nearest(pt);
+            assertEquals(expected.get(0), nearest.getDistance());
+            assertSame(paths.get(nearest.getIndex()), nearest.getPath());
+
+            List<Proximity> k = index.nearest(pt, 10);
+            assertEquals(10, k.size());
+            for (int j = 0; j < 10; j++) {
+                assertEquals(expected.get(j), k.get(j).getDistance());
+            }
+
+            double radius = 60.0;
+            List<Proximity> within = index.within(pt, radius);
+            int count = 0;
+            while (count < expected.size() && expected.get(count) <= radius) count++;
+            assertEquals(count, within.size());
+            for (int j = 0; j < count; j++) {
+                assertEquals(expected.get(j), within.get(j).getDistance());
+            }
+        }
+    }
+
+    public void testEmpty() {
+        PathIndex index = new PathIndex(Collections.<Path>emptyList());
+        assertNull(index.nearest(new Point(0, 0)));
+        assertTrue(index.nearest(new Point(0, 0), 3).isEmpty());
+        assertTrue(index.within(new Point(0, 0), 10.0).isEmpty());
+    }
+
+    public void testFewerThanK() {
+        List<Path> paths = randomPaths(new Random(1L), 3);
+        List<Proximity> all = new PathIndex(paths).nearest(new Point(500, 500), 5);
+        assertEquals(3, all.size());
+        assertTrue(all.get(0).getDistance() <= all.get(1).getDistance());
+        assertTrue(all.get(1).getDistance() <= all.get(2).getDistance());
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.tomgibara.geom.helper;
+
+import java.util.List;
+import java.util.Random;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class SelfIntersectorTest extends TestCase {
+
+    public void testBowtie() {
+        PolygonalPath path = PolygonalPath.builder().addPoints(
+                new Point(0, 0), new Point(10, 10), new Point(10, 0), new Point(0, 10)
+                ).closeAndBuild();
+        List<Crossing> crossings = new SelfIntersector().findCrossings(path);
+        assertEquals(1, crossings.size());
+        Crossing crossing = crossings.get(0);
+        assertEquals(new Point(5, 5), crossing.getPoint());
+        assertEquals(0, crossing.getFirstSegment());
+        assertEquals(0.5, crossing.getFirstParameter());
+        assertEquals(2, crossing.getSecondSegment());
+        assertEquals(0.5, crossing.getSecondParameter());
+    }
+
+    public void testSimple() {
+        PolygonalPath square = PolygonalPath.builder().addPoints(
+                new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)
+                ).closeAndBuild();
+        assertTrue(new SelfIntersector().findCrossings(square).isEmpty());
+    }
+
+    public void testVertexCrossedOnce() {
+        // the path passes back through its second vertex
+        PolygonalPath path = PolygonalPath.builder().addPoints(
+                new Point(0, 0), new Point(5, 5), new Point(10, 0), new Point(10, 10), new Point(0, 10), new Point(0, 5), new Point(8, 5)
+                ).build();
+        List<Crossing> crossings = new SelfIntersector().findCrossings(path);
+        assertEquals(1, crossings.size());
+        assertEquals(new Point(5, 5), crossings.get(0).getPoint());
+        assertEquals(1, crossings.get(0).getFirstSegment());
+        assertEquals(0.0, crossings.get(0).getFirstParameter());
+    }
+
+    public void testMatchesBruteForce() {
+        Random r = new Random(0L);
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < 200; i++) {
+            builder.addPoint(r.nextDouble() * 100.0, r.nextDouble() * 100.0);
+        }
+        checkBruteForce(builder.build());
+        // short segments in many bands, crossed by a few long segments
+        builder = PolygonalPath.builder();
+        for (int i = 0; i < 300; i++) {
+            builder.addPoint(r.nextDouble() * 100.0, i + r.nextDouble() * 3.0);
+        }
+        builder.addPoint(50.0, -10.0).addPoint(0.0, 400.0).addPoint(100.0, 0.0);
+        checkBruteForce(builder.build());
+    }
+
+    public void testSweepPrunesInY() {
+        // long segments which span x but are stacked in y
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.addPoint((i & 1) == 0 ? 0.0 : 1000.0, i);
+        }
+        // and a segment back across all of them
+        builder.addPoint(500.0, -1.0);
+        SelfIntersector intersector = new SelfIntersector();
+        List<Crossing> crossings = intersector.findCrossings(builder.build());
+        assertEquals(998, crossings.size());
+        assertTrue(intersector.getRectChecks() < 1000 * 1000 / 20);
+    }
+
+    private static void checkBruteForce(PolygonalPath path) {
+        double[] coords = path.getCoords();
+        int count = coords.length / 2 - 1;
+        int expected = 0;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 2; j < count; j++) {
+                if (!Double.isNaN(Segments.intersection(coords, i, coords, j))) expected++;
+            }
+        }
+        List<Crossing> crossings = new SelfIntersector().findCrossings(path);
+        assertEquals(expected, crossings.size());
+        for (int i = 1; i < crossings.size(); i++) {
+            Crossing c0 = crossings.get(i - 1);
+            Crossing c1 = crossings.get(i);
+            assertTrue(c0.getFirstSegment() + c0.getFirstParameter() <= c1.getFirstSegment() + c1.getFirstParameter());
+        }
+    }
+
+}
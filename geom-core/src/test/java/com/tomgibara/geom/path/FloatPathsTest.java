@@ -0,0 +1,66 @@
+package com.tomgibara.geom.path;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.curve.BezierCurve;
+import com.tomgibara.geom.curve.CurvePath;
+import com.tomgibara.geom.curve.FloatBezierPath;
+
+import junit.framework.TestCase;
+
+public class FloatPathsTest extends TestCase {
+
+    public void testPolygonal() {
+        PolygonalPath path = PolygonalPath.builder().addPoints(
+                new Point(0.1, 0.2), new Point(1000.3, 0.2), new Point(1000.3, 2000.7), new Point(0.1, 0.2)
+                ).build();
+        Path narrow = FloatPaths.narrow(path);
+        assertTrue(narrow instanceof FloatPolygonalPath);
+        assertEquals(path.isRectilinear(), narrow.isRectilinear());
+        double error = 2000.7 * Math.pow(2, -24);
+        assertEquals(path.getLength(), narrow.getLength(), error * 2 * 3);
+        assertEquals(path.getBounds().maxY, narrow.getBounds().maxY, error);
+        assertEquals(path.getPoints().size(), narrow.linearize(new Point.List()).size());
+
+        // widening is exact
+        Path wide = FloatPaths.widen(narrow);
+        assertTrue(wide instanceof PolygonalPath);
+        assertEquals(narrow.getLength(), wide.getLength(), 0.0);
+        assertEquals(narrow.getReverse().getStart(), wide.getReverse().getStart());
+    }
+
+    public void testBezier() {
+        BezierCurve[] curves = {
+                BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30)),
+                BezierCurve.fromPoints(new Point(0, 0), new Point(50, 50), new Point(100, 0)),
+                BezierCurve.fromPoints(new Point(0, 0), new Point(40, 40), new Point(-40, 40), new Point(0, 0)),
+                BezierCurve.fromPoints(new Point(5, 0), new Point(5, 20)),
+        };
+        for (BezierCurve curve : curves) {
+            FloatBezierPath narrow = FloatBezierPath.from(curve);
+            // the curves have coordinates that are exact at single precision
+            CurvePath path = curve.getPath();
+            assertEquals(path.getBounds(), narrow.getBounds());
+            assertEquals(curve.getHullBounds(), narrow.getHullBounds());
+            assertEquals(path.isClosed(), narrow.isClosed());
+            assertEquals(path.isRectilinear(), narrow.isRectilinear());
+            assertEquals(path.getLength(), narrow.getLength(), 0.0);
+            assertEquals(path.getReverse().getStart(), narrow.getReverse().getStart());
+            assertEquals(path.getReverse().getBounds(), narrow.getReverse().getBounds());
+        }
+    }
+
+    public void testSequence() {
+        BezierCurve curve = BezierCurve.fromPoints(new Point(0, 0), new Point(10, 40), new Point(60, -20), new Point(80, 30));
+        Path path = SequencePath.builder().addPath(curve.getPath()).addPoints(new Point(80, 30), new Point(100, 0)).asPolygonalPath().build();
+        CompositePath narrow = (CompositePath) FloatPaths.narrow(path);
+        assertTrue(narrow.getFirstPath() instanceof FloatBezierPath);
+        assertTrue(narrow.getLastPath() instanceof FloatPolygonalPath);
+        assertEquals(path.getLength(), narrow.getLength(), 1e-4);
+        assertEquals(path.byLength().pointAt(50.0).x, narrow.byLength().pointAt(50.0).x, 1e-4);
+
+        CompositePath wide = (CompositePath) FloatPaths.widen(narrow);
+        assertTrue(wide.getFirstPath() instanceof CurvePath);
+        assertTrue(wide.getLastPath() instanceof PolygonalPath);
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.tomgibara.geom.path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tomgibara.geom.core.LineSegment;
+import com.tomgibara.geom.core.LinearPath;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+import com.tomgibara.geom.core.Vector;
+
+import junit.framework.TestCase;
+
+public class PolygonalPathTest extends TestCase {
+
+    private static final double EPSILON = 1e-9;
+
+    private static PolygonalPath open() {
+        return PolygonalPath.builder().addPoints(new Point(0, 0), new Point(3, 4), new Point(5, 4), new Point(9, -2), new Point(10, 1)).build();
+    }
+
+    private static PolygonalPath closed() {
+        return PolygonalPath.builder().addPoints(new Point(1, 1), new Point(6, 2), new Point(4, 7), new Point(-1, 5)).closeAndBuild();
+    }
+
+    private static PolygonalPath rectilinear() {
+        return PolygonalPath.builder().addPoints(new Point(0, 0), new Point(4, 0), new Point(4, 3), new Point(1, 3), new Point(1, 8)).build();
+    }
+
+    private static PolygonalPath[] paths() {
+        return new PolygonalPath[] { open(), closed(), rectilinear() };
+    }
+
+    // the parameterizations formed from the individual segments of the path
+    private static Parameterizations reference(PolygonalPath path) {
+        List<Path> paths = new ArrayList<>();
+        for (LineSegment segment : path.getSegments()) {
+            paths.add(segment.getPath());
+        }
+        return new Parameterizations(path, paths);
+    }
+
+    private static void assertEquals(Point expected, Point actual) {
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+    }
+
+    private static void assertEquals(Vector expected, Vector actual) {
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+    }
+
+    public void testRectilinear() {
+        assertFalse(open().isRectilinear());
+        assertFalse(closed().isRectilinear());
+        assertTrue(rectilinear().isRectilinear());
+    }
+
+    public void testLengthAndBounds() {
+        for (PolygonalPath path : paths()) {
+            double length = 0.0;
+            Rect bounds = null;
+            for (LineSegment segment : path.getSegments()) {
+                length += segment.getPath().getLength();
+                bounds = bounds == null ? segment.getBounds() : Rect.unionRect(bounds, segment.getBounds());
+            }
+            assertEquals(length, path.getLength(), EPSILON);
+            assertEquals(bounds, path.getBounds());
+        }
+    }
+
+    public void testLinearize() {
+        for (PolygonalPath path : paths()) {
+            Point.List expected = new Point.List();
+            for (LineSegment segment : path.getSegments()) {
+                if (expected.isEmpty()) expected.add(segment.getStart());
+                expected.add(segment.getFinish());
+            }
+            assertEquals(expected, path.linearize(new Point.List()));
+        }
+    }
+
+    public void testSimplify() {
+        for (PolygonalPath path : paths()) {
+            Point.List points = new Point.List();
+            double length = collect(path, points);
+            assertEquals(path.getPoints(), points);
+            assertEquals(path.getLength(), length, EPSILON);
+        }
+    }
+
+    // recursively simplifies the path into linear paths, adding their points to the list
+    private static double collect(Path path, Point.List points) {
+        SimplifiedPath simplified = path.simplify();
+        if (simplified.isLinear()) {
+            LinearPath linear = simplified.getLinear();
+            if (points.isEmpty()) points.add(linear.getStart());
+            points.add(linear.getFinish());
+            return linear.getLength();
+        }
+        SplitPath split = simplified.getSplit();
+        return collect(split.getFirstPath(), points) + collect(split.getLastPath(), points);
+    }
+
+    public void testParameterization() {
+        for (PolygonalPath path : paths()) {
+            Parameterizations reference = reference(path);
+            checkParameterization(reference.getByIntrinsic(), path.byIntrinsic(), 1.0);
+            checkParameterization(reference.getByLength(), path.byLength(), path.getLength());
+            Parameterization.ByIntrinsic intrinsic = path.byIntrinsic();
+            Parameterization.ByLength length = path.byLength();
+            for (int i = 0; i <= 100; i++) {
+                double p = i / 100.0;
+                double s = intrinsic.lengthAt(p);
+                assertEquals(reference.getByIntrinsic().lengthAt(p), s, EPSILON);
+                assertEquals(p, length.intrinsicAt(s), EPSILON);
+                assertEquals(intrinsic.pointAt(p), length.pointAt(s));
+            }
+        }
+    }
+
+    private static void checkParameterization(Parameterization expected, Parameterization actual, double max) {
+        // includes the parameters of the vertices of the intrinsic parameterization
+        for (int i = -10; i <= 130; i++) {
+            double p = max * i / 120.0;
+            assertEquals(expected.pointAt(p), actual.pointAt(p));
+            assertEquals(expected.tangentAt(p), actual.tangentAt(p));
+            assertEquals(expected.pointTangentAt(p).getStart(), actual.pointTangentAt(p).getStart());
+            if (p <= 0 || p >= max) continue;
+            SplitPath es = expected.splitAt(p);
+            SplitPath as = actual.splitAt(p);
+            assertEquals(es.getFirstPath().getLength(), as.getFirstPath().getLength(), EPSILON);
+            assertEquals(es.getLastPath().getLength(), as.getLastPath().getLength(), EPSILON);
+            assertEquals(es.getFirstPath().getFinish(), as.getLastPath().getStart());
+            Path segment = actual.segment(p * 0.5, p);
+            assertEquals(actual.pointAt(p * 0.5), segment.getStart());
+            assertEquals(actual.pointAt(p), segment.getFinish());
+            // the segment length is checked against the lengths of the expected splits
+            double length = es.getFirstPath().getLength() - expected.splitAt(p * 0.5).getFirstPath().getLength();
+            assertEquals(length, segment.getLength(), EPSILON);
+        }
+        // the nearest point is compared by length, which both paths parameterize identically
+        Point pt = new Point(3, 3);
+        double nearest = actual.getPath().byLength().parameterNearest(pt);
+        assertEquals(nearest, expected.getPath().byLength().parameterNearest(pt), EPSILON);
+        assertEquals(actual.getPath().byLength().pointAt(nearest), actual.pointAt(actual.parameterNearest(pt)));
+        List<Path.Corner> ec = expected.getCorners();
+        List<Path.Corner> ac = actual.getCorners();
+        assertEquals(ec.size(), ac.size());
+        for (int i = 0; i < ec.size(); i++) {
+            assertEquals(ec.get(i).getPoint(), ac.get(i).getPoint());
+            assertEquals(ac.get(i).getPoint(), actual.pointAt(ac.get(i).getParameter()));
+        }
+    }
+
+}
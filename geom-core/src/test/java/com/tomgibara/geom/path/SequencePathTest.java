@@ -0,0 +1,27 @@
+package com.tomgibara.geom.path;
+
+import java.util.Arrays;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Vector;
+
+import junit.framework.TestCase;
+
+public class SequencePathTest extends TestCase {
+
+    public void testLinearizeReturnsConsumer() {
+        PolygonalPath line = PolygonalPath.builder().addPoints(new Point(0, 0), new Point(10, 0)).build();
+        PointPath point = PointPath.from(new Point(10, 0), new Vector(1, 0));
+        PolygonalPath next = PolygonalPath.builder().addPoints(new Point(10, 0), new Point(10, 5)).build();
+
+        // a subpath of a single point is skipped entirely, but the consumer's result is retained
+        Point.List list = new Point.List();
+        assertSame(list, new SequencePath(false, Arrays.asList(line, point)).linearize(list));
+        assertEquals(2, list.size());
+
+        list = new Point.List();
+        assertSame(list, new SequencePath(false, Arrays.asList(line, next)).linearize(list));
+        assertEquals(3, list.size());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.tomgibara.geom.shape;
+
+import java.util.Random;
+
+import com.tomgibara.geom.contour.PathContour;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.path.PolygonalPath;
+
+import junit.framework.TestCase;
+
+public class PreparedShapeTest extends TestCase {
+
+    private static PathContour polygon(double... coords) {
+        PolygonalPath.Builder builder = PolygonalPath.builder();
+        for (int i = 0; i < coords.length; i += 2) {
+            builder.addPoint(coords[i], coords[i + 1]);
+        }
+        return new PathContour(builder.closeAndBuild());
+    }
+
+    private static PathContour pentagram() {
+        double[] coords = new double[10];
+        for (int i = 0; i < 5; i++) {
+            double angle = Math.PI * 0.5 + i * Math.PI * 4.0 / 5.0;
+            coords[2 * i    ] = 100.0 * Math.cos(angle);
+            coords[2 * i + 1] = 100.0 * Math.sin(angle);
+        }
+        return polygon(coords);
+    }
+
+    private static PathContour star(int points, double inner, double outer, double phase) {
+        double[] coords = new double[points * 4];
+        for (int i = 0; i < points * 2; i++) {
+            double angle = phase + i * Math.PI / points;
+            double radius = i % 2 == 0 ? outer : inner;
+            coords[2 * i    ] = radius * Math.cos(angle);
+            coords[2 * i + 1] = radius * Math.sin(angle);
+        }
+        return polygon(coords);
+    }
+
+    // a random walk on integer coordinates, which places many vertices and edges on the lines of the grid
+    private static PathContour rectilinear(Random r, int steps) {
+        double[] coords = new double[steps * 4];
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < steps; i++) {
+            x = Math.max(-50, Math.min(50, x + r.nextInt(21) - 10));
+            coords[4 * i    ] = x;
+            coords[4 * i + 1] = y;
+            y = Math.max(-50, Math.min(50, y + r.nextInt(21) - 10));
+            coords[4 * i + 2] = x;
+            coords[4 * i + 3] = y;
+        }
+        return polygon(coords);
+    }
+
+    public void testGridMatchesScan() {
+        Random r = new Random(2L);
+        Shape[] shapes = {
+                new Shape(WindingRule.NON_ZERO, star(500, 40, 100, 0.0)),
+                new Shape(WindingRule.EVEN_ODD, star(500, 40, 100, 0.0), star(300, 20, 60, 0.1)),
+                new Shape(WindingRule.NON_ZERO, star(200, 60, 100, 0.0), polygon(-30, -30, -30, 30, 30, 30, 30, -30)),
+                new Shape(WindingRule.NON_ZERO, rectilinear(r, 400)),
+                new Shape(WindingRule.EVEN_ODD, rectilinear(r, 1000), rectilinear(r, 100)),
+        };
+        for (Shape shape : shapes) {
+            PreparedShape prepared = shape.prepare();
+            for (int i = 0; i < 20000; i++) {
+                double x;
+                double y;
+                if (i % 2 == 0) {
+                    x = r.nextDouble() * 240.0 - 120.0;
+                    y = r.nextDouble() * 240.0 - 120.0;
+                } else {
+                    x = r.nextInt(121) - 60;
+                    y = r.nextInt(121) - 60;
+                }
+                assertEquals(prepared.scan(x, y), prepared.windingNumber(x, y));
+            }
+        }
+        // a point near the star is classified as the shape classifies it
+        assertEquals(shapes[0].containsPoint(new Point(0, 0)), shapes[0].prepare().contains(0, 0));
+    }
+
+    public void testMatchesShape() {
+        PathContour outer = polygon(-100, -100, 100, -100, 100, 100, -100, 100);
+        PathContour hole = polygon(-50, -50, -50, 50, 50, 50, 50, -50);
+        Shape[] shapes = {
+                new Shape(WindingRule.NON_ZERO, pentagram()),
+                new Shape(WindingRule.EVEN_ODD, pentagram()),
+                new Shape(WindingRule.NON_ZERO, outer, hole),
+        };
+        Random r = new Random(0L);
+        for (Shape shape : shapes) {
+            PreparedShape prepared = shape.prepare();
+            assertSame(prepared, shape.prepare());
+            for (int i = 0; i < 2000; i++) {
+                double x = r.nextDouble() * 240.0 - 120.0;
+                double y = r.nextDouble() * 240.0 - 120.0;
+                assertEquals(shape.containsPoint(new Point(x, y)), prepared.contains(x, y));
+            }
+        }
+        // the centre of a pentagram is wound twice
+        assertEquals(2, Math.abs(shapes[0].prepare().windingNumber(0, 0)));
+        assertTrue(shapes[0].prepare().contains(0, 0));
+        assertFalse(shapes[1].prepare().contains(0, 0));
+        assertFalse(shapes[2].prepare().contains(0, 0));
+        assertTrue(shapes[2].prepare().contains(75, 0));
+        // coincident contours are each counted
+        PreparedShape twice = new Shape(WindingRule.EVEN_ODD, outer, outer).prepare();
+        assertEquals(2, Math.abs(twice.windingNumber(0, 0)));
+        assertFalse(twice.contains(0, 0));
+    }
+
+    public void testBulkMatchesSingle() {
+        Shape shape = new Shape(WindingRule.EVEN_ODD, pentagram());
+        PreparedShape prepared = shape.prepare();
+        Random r = new Random(1L);
+        // enough points to be classified in parallel
+        int count = 50000;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = r.nextDouble() * 240.0 - 120.0;
+            ys[i] = r.nextDouble() * 240.0 - 120.0;
+        }
+        boolean[] out = new boolean[count];
+        prepared.contains(xs, ys, out);
+        for (int i = 0; i < count; i++) {
+            assertEquals(prepared.contains(xs[i], ys[i]), out[i]);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.tomgibara.geom.transform;
+
+import java.util.Random;
+
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.core.Rect;
+
+import junit.framework.TestCase;
+
+public class TransformTest extends TestCase {
+
+    private static final Transform[] TRANSFORMS = {
+            Transform.identity(),
+            Transform.translation(3.5, -2.0),
+            Transform.scale(2.5),
+            Transform.scale(-1.0),
+            Transform.scale(2.0, 0.5),
+            Transform.rotateRightAngles(2),
+            Transform.rotation(0.3),
+            Transform.components(2.0, 0.0, 0.0, 0.5, 0.0, 0.0),
+            Transform.components(1.0, 0.0, 0.0, -1.0, 4.0, 1.0),
+            Transform.components(1.5, 0.25, -0.5, 2.0, 7.0, -3.0),
+            Transform.translateAndScale(Rect.atPoints(0, 0, 1, 1), Rect.atPoints(5, 5, 8, 9)),
+    };
+
+    public void testBulkMatchesPoints() {
+        Random r = new Random(0L);
+        int count = 37;
+        double[] coords = new double[count * 2];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = r.nextDouble() * 200.0 - 100.0;
+        }
+        for (Transform t : TRANSFORMS) {
+            double[] dst = new double[coords.length + 4];
+            t.transform(coords, dst, 2, 3, coords.length - 2);
+            double[] inPlace = coords.clone();
+            t.transform(inPlace);
+            for (int i = 0; i < count; i++) {
+                Point expected = t.transform(new Point(coords[2 * i], coords[2 * i + 1]));
+                assertEquals(t.toString(), expected.x, inPlace[2 * i], 1e-12);
+                assertEquals(t.toString(), expected.y, inPlace[2 * i + 1], 1e-12);
+                if (i > 0) {
+                    assertEquals(t.toString(), expected.x, dst[2 * i + 1], 1e-12);
+                    assertEquals(t.toString(), expected.y, dst[2 * i + 2], 1e-12);
+                }
+            }
+        }
+    }
+
+    public void testMaximumScale() {
+        for (Transform t : TRANSFORMS) {
+            double max = 0.0;
+            for (int i = 0; i < 3600; i++) {
+                double angle = Math.PI * i / 1800.0;
+                Point p = t.preservingOrigin().transform(Math.cos(angle), Math.sin(angle));
+                max = Math.max(max, Math.hypot(p.x, p.y));
+            }
+            double scale = t.getMaximumScale();
+            assertTrue(t.toString(), scale >= max - 1e-12);
+            assertEquals(t.toString(), max, scale, 1e-5);
+        }
+    }
+
+    public void testIdentityOrTranslation() {
+        assertTrue(Transform.translation(1.0, 2.0).isIdentityOrTranslation());
+        assertFalse(Transform.rotateRightAngles(2).isIdentityOrTranslation());
+        assertFalse(Transform.components(2.0, 0.0, 0.0, 0.5, 1.0, 0.0).isIdentityOrTranslation());
+        assertFalse(Transform.components(1.0, 0.0, 0.0, -1.0, 1.0, 0.0).isIdentityOrTranslation());
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.tomgibara.geom.raster;
+
+// the fraction of each pixel covered by a shape, in rows from the top
+// pixel (x, y) is the unit square with its least corner at (x, y) in the coordinates of the shape
+public final class CoverageMask {
+
+    private final int width;
+    private final int height;
+    private final float[] coverage;
+
+    CoverageMask(int width, int height, float[] coverage) {
+        this.width = width;
+        this.height = height;
+        this.coverage = coverage;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // the coverage of the pixel, from 0 to 1
+    public float coverageAt(int x, int y) {
+        if (x < 0 || x >= width) throw new IllegalArgumentException("invalid x");
+        if (y < 0 || y >= height) throw new IllegalArgumentException("invalid y");
+        return coverage[y * width + x];
+    }
+
+    // the coverage of every pixel, row by row
+    public float[] toFloats() {
+        return coverage.clone();
+    }
+
+    // the coverage of every pixel scaled to an unsigned byte, row by row, as for an alpha channel
+    public byte[] toBytes() {
+        byte[] bytes = new byte[coverage.length];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Math.round(coverage[i] * 255f);
+        }
+        return bytes;
+    }
+
+}
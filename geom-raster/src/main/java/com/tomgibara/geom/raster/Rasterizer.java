@@ -0,0 +1,416 @@
+package com.tomgibara.geom.raster;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.tomgibara.geom.core.GeomUtil;
+import com.tomgibara.geom.shape.Shape;
+import com.tomgibara.geom.shape.WindingRule;
+
+// computes the coverage of shapes over a grid of pixels without recourse to AWT
+// each row of pixels is sampled along a number of evenly spaced scanlines; the spans of each scanline that lie
+// inside the shape, according to its winding rule, are found from a table of active edges and accumulated with
+// their exact horizontal extent, so only vertical coverage is approximated
+// the pixels are divided into square tiles which are rasterized in parallel; tiles that no edge enters are
+// filled without examining their pixels
+// shapes are rasterized in their own coordinates, and may be transformed beforehand to position them
+// rasterizers are immutable and may be used by many threads concurrently
+public final class Rasterizer {
+
+    public static final int DEFAULT_SCANLINES = 4;
+    public static final int DEFAULT_TILE_SIZE = 128;
+
+    // receives the coverage of each tile of a rasterization, possibly concurrently from many threads
+    public interface TileConsumer {
+
+        // the tile has its least pixel at (x, y); its coverage is valid only for the duration of the call
+        void consume(int x, int y, int width, int height, float[] coverage);
+
+    }
+
+    private final int width;
+    private final int height;
+    private final int scanlines;
+    private final int tileSize;
+
+    public Rasterizer(int width, int height) {
+        this(width, height, DEFAULT_SCANLINES, DEFAULT_TILE_SIZE);
+    }
+
+    public Rasterizer(int width, int height, int scanlines) {
+        this(width, height, scanlines, DEFAULT_TILE_SIZE);
+    }
+
+    public Rasterizer(int width, int height, int scanlines, int tileSize) {
+        if (width <= 0) throw new IllegalArgumentException("non-positive width");
+        if (height <= 0) throw new IllegalArgumentException("non-positive height");
+        if (scanlines <= 0) throw new IllegalArgumentException("non-positive scanlines");
+        if (tileSize <= 0) throw new IllegalArgumentException("non-positive tileSize");
+        this.width = width;
+        this.height = height;
+        this.scanlines = scanlines;
+        this.tileSize = tileSize;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // the number of scanlines sampled across each row of pixels
+    public int getScanlines() {
+        return scanlines;
+    }
+
+    // the width and height of the tiles, except those truncated at the right and bottom
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public CoverageMask rasterize(Shape shape) {
+        float[] coverage = new float[width * height];
+        rasterize(shape, coverage);
+        return new CoverageMask(width, height, coverage);
+    }
+
+    // writes the coverage of every pixel, row by row, into the supplied array so that it may be reused
+    public void rasterize(Shape shape, float[] coverage) {
+        if (shape == null) throw new IllegalArgumentException("null shape");
+        if (coverage == null) throw new IllegalArgumentException("null coverage");
+        if (coverage.length < width * height) throw new IllegalArgumentException("coverage too short");
+        rasterize(shape, (x, y, w, h, tile) -> {
+            for (int row = 0; row < h; row++) {
+                System.arraycopy(tile, row * w, coverage, (y + row) * width + x, w);
+            }
+        });
+    }
+
+    // supplies the coverage of every tile to the consumer; only the tiles being rasterized are held in memory
+    // contours, such as those produced by a stroke, may be rasterized by first combining them into a shape
+    public void rasterize(Shape shape, TileConsumer consumer) {
+        if (shape == null) throw new IllegalArgumentException("null shape");
+        if (consumer == null) throw new IllegalArgumentException("null consumer");
+        Edges edges = new Edges(shape, height);
+        Bands bands = new Bands(edges);
+        WindingRule rule = shape.getWindingRule();
+        int columns = (width + tileSize - 1) / tileSize;
+        int tiles = columns * bands.count;
+        IntStream.range(0, tiles).parallel().forEach(t -> {
+            int x = (t % columns) * tileSize;
+            int y = (t / columns) * tileSize;
+            int w = Math.min(tileSize, width - x);
+            int h = Math.min(tileSize, height - y);
+            float[] coverage = new float[w * h];
+            new Scanner(edges, bands, t / columns, rule, x, y, w, h).scan(coverage);
+            consumer.consume(x, y, w, h, coverage);
+        });
+    }
+
+    // the edges of the linearized contours that lie within the rows, ordered by their least y
+    private static final class Edges {
+
+        int count = 0;
+        double[] tops = new double[16];
+        double[] bottoms = new double[16];
+        double[] xs = new double[16]; // the x coordinate at the top of the edge
+        double[] slopes = new double[16]; // the change in x with y
+        double[] lefts = new double[16]; // the least x coordinate of the edge
+        double[] rights = new double[16]; // the greatest x coordinate of the edge
+        int[] directions = new int[16];
+
+        Edges(Shape shape, int height) {
+            double[] edges = shape.linearizeEdges();
+            for (int i = 0; i < edges.length; i += 4) {
+                add(edges[i], edges[i + 1], edges[i + 2], edges[i + 3], height);
+            }
+            sort();
+        }
+
+        private void add(double x0, double y0, double x1, double y1, int height) {
+            // horizontal edges are never active, but are retained so that tiles they cross are not taken to be uniform
+            int direction = y0 == y1 ? 0 : 1;
+            if (y0 > y1) {
+                double x = x0; x0 = x1; x1 = x;
+                double y = y0; y0 = y1; y1 = y;
+                direction = -1;
+            }
+            if (y1 <= 0.0 || y0 >= height) return;
+            if (count == tops.length) {
+                int capacity = count * 2;
+                tops = Arrays.copyOf(tops, capacity);
+                bottoms = Arrays.copyOf(bottoms, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                slopes = Arrays.copyOf(slopes, capacity);
+                lefts = Arrays.copyOf(lefts, capacity);
+                rights = Arrays.copyOf(rights, capacity);
+                directions = Arrays.copyOf(directions, capacity);
+            }
+            tops[count] = y0;
+            bottoms[count] = y1;
+            xs[count] = x0;
+            slopes[count] = direction == 0 ? 0.0 : (x1 - x0) / (y1 - y0);
+            lefts[count] = Math.min(x0, x1);
+            rights[count] = Math.max(x0, x1);
+            directions[count] = direction;
+            count++;
+        }
+
+        private void sort() {
+            int[] order = GeomUtil.sortedIndices(this.tops, count);
+            double[] tops = new double[count];
+            double[] bottoms = new double[count];
+            double[] xs = new double[count];
+            double[] slopes = new double[count];
+            double[] lefts = new double[count];
+            double[] rights = new double[count];
+            int[] directions = new int[count];
+            for (int i = 0; i < count; i++) {
+                int e = order[i];
+                tops[i] = this.tops[e];
+                bottoms[i] = this.bottoms[e];
+                xs[i] = this.xs[e];
+                slopes[i] = this.slopes[e];
+                lefts[i] = this.lefts[e];
+                rights[i] = this.rights[e];
+                directions[i] = this.directions[e];
+            }
+            this.tops = tops;
+            this.bottoms = bottoms;
+            this.xs = xs;
+            this.slopes = slopes;
+            this.lefts = lefts;
+            this.rights = rights;
+            this.directions = directions;
+        }
+
+    }
+
+    // the edges that meet each row of tiles, in the order of the edge table
+    // band b has edges ids[starts[b]] to ids[starts[b + 1] - 1]
+    private final class Bands {
+
+        final int count = (height + tileSize - 1) / tileSize;
+        final int[] starts = new int[count + 1];
+        final int[] ids;
+
+        Bands(Edges edges) {
+            for (int e = 0; e < edges.count; e++) {
+                for (int b = first(edges, e); b <= last(edges, e); b++) {
+                    starts[b + 1]++;
+                }
+            }
+            for (int b = 0; b < count; b++) {
+                starts[b + 1] += starts[b];
+            }
+            ids = new int[starts[count]];
+            int[] positions = Arrays.copyOf(starts, count);
+            for (int e = 0; e < edges.count; e++) {
+                for (int b = first(edges, e); b <= last(edges, e); b++) {
+                    ids[positions[b]++] = e;
+                }
+            }
+        }
+
+        private int first(Edges edges, int e) {
+            return Math.max(0, (int) Math.floor(edges.tops[e] / tileSize));
+        }
+
+        private int last(Edges edges, int e) {
+            return Math.min(count - 1, (int) Math.floor(edges.bottoms[e] / tileSize));
+        }
+
+    }
+
+    // the state of a single pass down the rows of a tile
+    private final class Scanner {
+
+        private final Edges edges;
+        private final WindingRule rule;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        // the edges that cross the columns of the tile; those wholly to its right cannot affect it
+        private final int[] ids;
+        private final int count;
+        // the edges wholly to the left of the tile, which only contribute to the winding number at its left side
+        // their least and greatest y coordinates are kept in order, separately for each direction
+        private final double[] upTops;
+        private final double[] upBottoms;
+        private final double[] downTops;
+        private final double[] downBottoms;
+        private final int[] passed = new int[4]; // the number of coordinates passed in each of the above
+        private final boolean entered; // whether any edge may enter the tile
+        private final float weight = 1f / scanlines;
+        // coverage of the current row by pixel; area is per pixel, delta applies to every pixel to the right
+        private final float[] area;
+        private final float[] delta;
+        private int[] active = new int[16];
+        private double[] crossings = new double[16];
+        private int activeCount = 0;
+        private int next = 0; // the next edge to become active
+
+        Scanner(Edges edges, Bands bands, int band, WindingRule rule, int x, int y, int width, int height) {
+            this.edges = edges;
+            this.rule = rule;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            int from = bands.starts[band];
+            int to = bands.starts[band + 1];
+            int[] ids = new int[to - from];
+            double[] upTops = new double[to - from];
+            double[] upBottoms = new double[to - from];
+            double[] downTops = new double[to - from];
+            double[] downBottoms = new double[to - from];
+            int count = 0;
+            int ups = 0;
+            int downs = 0;
+            boolean entered = false;
+            for (int i = from; i < to; i++) {
+                int e = bands.ids[i];
+                if (edges.lefts[e] >= x + width) continue;
+                if (edges.rights[e] <= x) {
+                    switch (edges.directions[e]) {
+                    case 1 :
+                        upTops[ups] = edges.tops[e];
+                        upBottoms[ups++] = edges.bottoms[e];
+                        break;
+                    case -1 :
+                        downTops[downs] = edges.tops[e];
+                        downBottoms[downs++] = edges.bottoms[e];
+                        break;
+                    }
+                    continue;
+                }
+                ids[count++] = e;
+                if (!entered) entered = edges.bottoms[e] > y && edges.tops[e] < y + height;
+            }
+            this.ids = ids;
+            this.count = count;
+            // the edges are already ordered by their tops
+            Arrays.sort(upBottoms, 0, ups);
+            Arrays.sort(downBottoms, 0, downs);
+            this.upTops = Arrays.copyOf(upTops, ups);
+            this.upBottoms = Arrays.copyOf(upBottoms, ups);
+            this.downTops = Arrays.copyOf(downTops, downs);
+            this.downBottoms = Arrays.copyOf(downBottoms, downs);
+            this.entered = entered;
+            area = entered ? new float[width + 1] : null;
+            delta = entered ? new float[width + 1] : null;
+        }
+
+        void scan(float[] coverage) {
+            if (!entered) {
+                // the winding number is the same throughout the tile; find it at its top left
+                int winding = leftWinding(y + 0.5 / scanlines);
+                Arrays.fill(coverage, 0, width * height, rule.isInterior(winding) ? 1f : 0f);
+                return;
+            }
+            boolean left = upTops.length > 0 || downTops.length > 0;
+            for (int row = 0; row < height; row++) {
+                int offset = row * width;
+                int r = y + row;
+                if (!left && activeCount == 0 && (next == count || edges.tops[ids[next]] >= r + 1)) {
+                    // no edge meets the row
+                    Arrays.fill(coverage, offset, offset + width, 0f);
+                    continue;
+                }
+                for (int s = 0; s < scanlines; s++) {
+                    scanline(r + (s + 0.5) / scanlines);
+                }
+                float sum = 0f;
+                for (int i = 0; i < width; i++) {
+                    sum += delta[i];
+                    coverage[offset + i] = Math.min(1f, Math.max(0f, sum + area[i]));
+                }
+                Arrays.fill(area, 0f);
+                Arrays.fill(delta, 0f);
+            }
+        }
+
+        private void scanline(double sy) {
+            // retire edges that end above the scanline and admit those that start on or above it
+            int count = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int e = active[i];
+                if (edges.bottoms[e] > sy) active[count++] = e;
+            }
+            while (next < this.count && edges.tops[ids[next]] <= sy) {
+                int e = ids[next];
+                if (edges.bottoms[e] > sy) {
+                    if (count == active.length) {
+                        active = Arrays.copyOf(active, count * 2);
+                        crossings = Arrays.copyOf(crossings, count * 2);
+                    }
+                    active[count++] = e;
+                }
+                next++;
+            }
+            activeCount = count;
+
+            // order the crossings; an insertion sort is quick since the order changes little between scanlines
+            for (int i = 0; i < count; i++) {
+                int e = active[i];
+                double cx = edges.xs[e] + (sy - edges.tops[e]) * edges.slopes[e] - x;
+                int j = i;
+                for (; j > 0 && crossings[j - 1] > cx; j--) {
+                    crossings[j] = crossings[j - 1];
+                    active[j] = active[j - 1];
+                }
+                crossings[j] = cx;
+                active[j] = e;
+            }
+
+            int winding = leftWinding(sy);
+            double start = 0.0;
+            for (int i = 0; i < count; i++) {
+                boolean inside = rule.isInterior(winding);
+                winding += edges.directions[active[i]];
+                if (inside != rule.isInterior(winding)) {
+                    if (inside) {
+                        span(start, crossings[i]);
+                    } else {
+                        start = crossings[i];
+                    }
+                }
+            }
+            // a span may continue beyond the tile, to an edge that was not considered
+            if (rule.isInterior(winding)) span(start, width);
+        }
+
+        // the winding number at the left of the tile, for scanlines visited in order
+        private int leftWinding(double sy) {
+            return passed(0, upTops, sy) - passed(1, upBottoms, sy) - passed(2, downTops, sy) + passed(3, downBottoms, sy);
+        }
+
+        private int passed(int index, double[] ys, double sy) {
+            int i = passed[index];
+            while (i < ys.length && ys[i] <= sy) i++;
+            return passed[index] = i;
+        }
+
+        // accumulates the coverage of the scanline between the two x coordinates, relative to the tile
+        private void span(double from, double to) {
+            from = Math.max(from, 0.0);
+            to = Math.min(to, width);
+            if (from >= to) return;
+            int i = (int) from;
+            int j = (int) to;
+            if (i == j) {
+                area[i] += (float) (to - from) * weight;
+            } else {
+                area[i] += (float) (i + 1 - from) * weight;
+                delta[i + 1] += weight;
+                delta[j] -= weight;
+                area[j] += (float) (to - j) * weight;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.tomgibara.geom.raster;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tomgibara.geom.contour.EllipseContour;
+import com.tomgibara.geom.contour.PathContour;
+import com.tomgibara.geom.core.Point;
+import com.tomgibara.geom.curve.Ellipse;
+import com.tomgibara.geom.path.PolygonalPath;
+import com.tomgibara.geom.shape.PreparedShape;
+import com.tomgibara.geom.shape.Shape;
+import com.tomgibara.geom.shape.WindingRule;
+import com.tomgibara.geom.transform.Transform;
+
+import junit.framework.TestCase;
+
+public class RasterizerTest extends TestCase {
+
+    // a pentagram of radius 45 centred in a 100 pixel square, and a copy moved 10 pixels to the right
+    private static final PathContour PENTAGRAM = contour(50, 95, 23.55, 13.59, 92.8, 63.91, 7.2, 63.91, 76.45, 13.59);
+    private static final PathContour PENTAGRAM_RIGHT = PENTAGRAM.apply(Transform.translation(10, 0));
+
+    private static PathContour contour(double... coords) {
+        return new PathContour(PolygonalPath.builder().addPoints(coords, 0, coords.length).closeAndBuild());
+    }
+
+    private static double total(CoverageMask mask) {
+        double sum = 0.0;
+        for (float c : mask.toFloats()) {
+            sum += c;
+        }
+        return sum;
+    }
+
+    public void testRectangle() {
+        Shape shape = new Shape(WindingRule.NON_ZERO, contour(10.25, 20.5, 30.75, 20.5, 30.75, 40, 10.25, 40));
+        CoverageMask mask = new Rasterizer(64, 48).rasterize(shape);
+        assertEquals(64, mask.getWidth());
+        assertEquals(48, mask.getHeight());
+        assertEquals(1f, mask.coverageAt(20, 30));
+        assertEquals(0f, mask.coverageAt(5, 30));
+        assertEquals(0f, mask.coverageAt(20, 45));
+        // horizontal coverage is exact, vertical coverage is sampled at a quarter of the scanlines
+        assertEquals(0.75f, mask.coverageAt(10, 30), 1e-6f);
+        assertEquals(0.75f, mask.coverageAt(30, 30), 1e-6f);
+        assertEquals(0.5f, mask.coverageAt(20, 20), 1e-6f);
+        assertEquals(0.375f, mask.coverageAt(10, 20), 1e-6f);
+        assertEquals(20.5 * 19.5, total(mask), 1e-3);
+    }
+
+    public void testWindingRules() {
+        CoverageMask nonZero = new Rasterizer(100, 100).rasterize(new Shape(WindingRule.NON_ZERO, PENTAGRAM));
+        CoverageMask evenOdd = new Rasterizer(100, 100).rasterize(new Shape(WindingRule.EVEN_ODD, PENTAGRAM));
+        assertEquals(1f, nonZero.coverageAt(50, 50));
+        assertEquals(0f, evenOdd.coverageAt(50, 50));
+        assertEquals(1f, evenOdd.coverageAt(50, 85));
+        assertTrue(total(nonZero) > total(evenOdd));
+    }
+
+    public void testMatchesContainment() {
+        Shape shape = new Shape(WindingRule.EVEN_ODD, PENTAGRAM_RIGHT, new EllipseContour(Ellipse.fromRadius(new Point(40, 40), 25), true));
+        CoverageMask mask = new Rasterizer(120, 100).rasterize(shape);
+        // the prepared shape classifies points against the same linearized contours
+        PreparedShape prepared = shape.prepare();
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 120; x++) {
+                float c = mask.coverageAt(x, y);
+                // pixels entirely inside or outside the shape are fully covered or not covered at all
+                boolean all = true;
+                boolean none = true;
+                for (int i = 0; i <= 4; i++) {
+                    for (int j = 0; j <= 4; j++) {
+                        boolean contained = prepared.contains(x + i * 0.25, y + j * 0.25);
+                        all &= contained;
+                        none &= !contained;
+                    }
+                }
+                if (all) assertEquals(1f, c, 1e-6f);
+                if (none) assertEquals(0f, c, 1e-6f);
+            }
+        }
+    }
+
+    public void testArea() {
+        int n = 100;
+        double[] coords = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            double angle = 2.0 * Math.PI * i / n;
+            coords[2 * i    ] = 100.0 + 80.0 * Math.cos(angle);
+            coords[2 * i + 1] = 100.0 + 80.0 * Math.sin(angle);
+        }
+        CoverageMask mask = new Rasterizer(200, 200, 16).rasterize(new Shape(WindingRule.NON_ZERO, contour(coords)));
+        assertEquals(0.5 * n * 80.0 * 80.0 * Math.sin(2.0 * Math.PI / n), total(mask), 0.5);
+    }
+
+    public void testClipped() {
+        // a shape extending beyond the pixels is clipped to them
+        Shape shape = new Shape(WindingRule.NON_ZERO, contour(-50, -50, 150, -50, 150, 150, -50, 150));
+        CoverageMask mask = new Rasterizer(30, 20).rasterize(shape);
+        byte[] bytes = mask.toBytes();
+        assertEquals(600, bytes.length);
+        for (byte b : bytes) {
+            assertEquals((byte) 255, b);
+        }
+    }
+
+    public void testReusedArray() {
+        Shape shape = new Shape(WindingRule.NON_ZERO, PENTAGRAM);
+        Rasterizer rasterizer = new Rasterizer(100, 100);
+        float[] coverage = new float[100 * 100];
+        Arrays.fill(coverage, 0.5f);
+        rasterizer.rasterize(shape, coverage);
+        assertTrue(Arrays.equals(rasterizer.rasterize(shape).toFloats(), coverage));
+    }
+
+    public void testTilesMatchWhole() {
+        Shape shape = new Shape(WindingRule.EVEN_ODD, PENTAGRAM_RIGHT, new EllipseContour(Ellipse.fromRadius(new Point(40, 40), 25), true));
+        float[] whole = new Rasterizer(120, 100, 4, 1000).rasterize(shape).toFloats();
+        for (int size : new int[] { 1, 7, 16, 64 }) {
+            float[] tiled = new Rasterizer(120, 100, 4, size).rasterize(shape).toFloats();
+            for (int i = 0; i < whole.length; i++) {
+                assertEquals(whole[i], tiled[i], 1e-5f);
+            }
+        }
+    }
+
+    public void testTileConsumer() {
+        // the interior tiles of the square, and those outside it, have no edges
+        Shape shape = new Shape(WindingRule.NON_ZERO, contour(10.5, 10.5, 90.5, 10.5, 90.5, 90.5, 10.5, 90.5));
+        Rasterizer rasterizer = new Rasterizer(130, 100, 4, 16);
+        int[] hits = new int[130 * 100];
+        AtomicInteger tiles = new AtomicInteger();
+        rasterizer.rasterize(shape, (x, y, w, h, coverage) -> {
+            tiles.incrementAndGet();
+            assertEquals(Math.min(16, 130 - x), w);
+            assertEquals(Math.min(16, 100 - y), h);
+            for (int j = 0; j < h; j++) {
+                for (int i = 0; i < w; i++) {
+                    double px = x + i + 0.5;
+                    double py = y + j + 0.5;
+                    boolean inside = px > 11 && px < 90 && py > 11 && py < 90;
+                    boolean outside = px < 10 || px > 91 || py < 10 || py > 91;
+                    float c = coverage[j * w + i];
+                    if (inside) assertEquals(1f, c);
+                    if (outside) assertEquals(0f, c);
+                    synchronized (hits) {
+                        hits[(y + j) * 130 + x + i]++;
+                    }
+                }
+            }
+        });
+        assertEquals(9 * 7, tiles.get());
+        for (int hit : hits) {
+            assertEquals(1, hit);
+        }
+    }
+
+}